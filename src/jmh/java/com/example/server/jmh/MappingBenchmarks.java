@@ -0,0 +1,79 @@
+package com.example.server.jmh;
+
+import com.example.server.model.data.Transaction;
+import com.example.server.model.vo.TransactionSearchResultVO;
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+import com.example.server.util.TransactionMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the entity/VO copies done on every read, write and search row, without any database work:
+ * the reflective {@code BeanUtils.copyProperties} baseline against {@link TransactionMapper}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MappingBenchmarks {
+
+    private Transaction transaction;
+    private TransactionVO transactionVO;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        transaction = new Transaction();
+        transaction.setId(42L);
+        transaction.setType(Constants.TX_TYPE_PAYMENT);
+        transaction.setAmount(new BigDecimal("120.50"));
+        transaction.setTransactionDate(now);
+        transaction.setTransactionDescription("Invoice 42 for vendor 7");
+        transaction.setDebitAccount("100001");
+        transaction.setCreditAccount("200001");
+        transaction.setCurrency(Constants.DEFAULT_CURRENCY);
+        transaction.setStatus(Constants.TX_STATUS_SUBMITTED);
+        transaction.setLastUpdated(now);
+        transaction.setSubmittedBy("user0001");
+        transaction.setSubmittedAt(now);
+        transaction.setVersion(0L);
+
+        transactionVO = TransactionMapper.toVO(transaction);
+    }
+
+    @Benchmark
+    public TransactionVO entityToVoBeanUtils() {
+        TransactionVO vo = new TransactionVO();
+        BeanUtils.copyProperties(transaction, vo);
+        return vo;
+    }
+
+    @Benchmark
+    public Transaction voToEntityBeanUtils() {
+        Transaction entity = new Transaction();
+        BeanUtils.copyProperties(transactionVO, entity);
+        return entity;
+    }
+
+    @Benchmark
+    public TransactionVO entityToVoMapper() {
+        return TransactionMapper.toVO(transaction);
+    }
+
+    @Benchmark
+    public Transaction voToEntityMapper() {
+        return TransactionMapper.toEntity(transactionVO);
+    }
+
+    @Benchmark
+    public TransactionSearchResultVO entityToSearchResultMapper() {
+        return TransactionMapper.toSearchResult(transaction);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.server.jmh;
+
+import com.example.server.benchmark.BenchmarkData;
+import com.example.server.model.vo.TransactionSearchResultVO;
+import com.example.server.model.vo.TransactionSearchVO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of searchTransaction (page and count query) per filter combination. Filters are
+ * joined with '+', for example {@code -p filter=status+dateRange}. Every invocation uses different
+ * values so that H2 cannot hand back the previous result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchTransactionBenchmarks {
+
+    @Param({"none", "id", "type", "status", "dateRange", "description", "submittedBy", "approvedBy",
+            "type+status", "status+dateRange", "type+dateRange", "submittedBy+status",
+            "type+status+dateRange+description"})
+    public String filter;
+
+    private int next;
+    private TransactionSearchVO searchVO;
+
+    @Setup(Level.Invocation)
+    public void nextSearch(SeededApplication app) {
+        int i = next++;
+        TransactionSearchVO vo = new TransactionSearchVO();
+        for (String name : filter.split("\\+")) {
+            switch (name) {
+                case "none" -> {
+                }
+                case "id" -> vo.setId(app.id(i * 7919));
+                case "type" -> vo.setType(BenchmarkData.TYPES[i % BenchmarkData.TYPES.length]);
+                case "status" -> vo.setStatus(BenchmarkData.STATUSES[i % BenchmarkData.STATUSES.length]);
+                case "dateRange" -> {
+                    vo.setStartDate(BenchmarkData.EPOCH.plusDays(i % 700));
+                    vo.setEndDate(BenchmarkData.EPOCH.plusDays(i % 700 + 7));
+                }
+                case "description" -> vo.setTransactionDescription("vendor " + (1000 + i % 4000));
+                case "submittedBy" -> vo.setSubmittedBy(String.format("user%04d", i % 1000));
+                case "approvedBy" -> vo.setApprovedBy(String.format("admin%03d", i % 200));
+                default -> throw new IllegalArgumentException("Unknown filter " + name);
+            }
+        }
+        searchVO = vo;
+    }
+
+    @Benchmark
+    public Page<TransactionSearchResultVO> searchTransaction(SeededApplication app) {
+        return app.transactionService.searchTransaction(searchVO);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.server.jmh;
+
+import com.example.server.ServerApplication;
+import com.example.server.benchmark.BenchmarkData;
+import com.example.server.service.TransactionDescriptionIndex;
+import com.example.server.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application without the web layer against an in-memory H2 seeded with
+ * {@link BenchmarkData}. The table size is set with {@code -p rows=...}.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    @Param({"100000"})
+    public int rows;
+
+    ConfigurableApplicationContext context;
+    TransactionService transactionService;
+    JdbcTemplate jdbcTemplate;
+    Cache transactionCache;
+    long[] ids;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ServerApplication.class)
+                .web(WebApplicationType.NONE)
+                // command line arguments, because default properties lose to application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        // the searches repeat, so a result cache would turn them into cache hits
+                        "--transaction.search-cache.maximum-rows=0",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionCache = context.getBean(CacheManager.class).getCache("transaction");
+
+        BenchmarkData.seed(jdbcTemplate, rows);
+        context.getBean(TransactionDescriptionIndex.class).rebuild();
+        ids = jdbcTemplate.queryForList("SELECT id FROM transactions ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    long id(int sequence) {
+        return ids[Math.floorMod(sequence, ids.length)];
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.server.jmh;
+
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the single-row write and read paths of TransactionService.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionServiceBenchmarks {
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int next;
+    }
+
+    @State(Scope.Thread)
+    public static class SubmittedRow {
+
+        int next;
+        long id;
+
+        // approving is one-way, so every invocation gets a row put back into SUBMITTED
+        @Setup(Level.Invocation)
+        public void reset(SeededApplication app) {
+            id = app.id(next++ * 7919);
+            app.jdbcTemplate.update("UPDATE transactions SET status = ? WHERE id = ?", Constants.TX_STATUS_SUBMITTED, id);
+            app.transactionCache.evict(id);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class EvictedRow {
+
+        int next;
+        long id;
+
+        @Setup(Level.Invocation)
+        public void evict(SeededApplication app) {
+            id = app.id(next++ * 7919);
+            app.transactionCache.evict(id);
+        }
+    }
+
+    @Benchmark
+    public TransactionVO createTransaction(SeededApplication app) {
+        TransactionVO vo = new TransactionVO();
+        vo.setType(Constants.TX_TYPE_PAYMENT);
+        vo.setAmount(new BigDecimal("120.50"));
+        vo.setTransactionDate(LocalDateTime.now());
+        vo.setTransactionDescription("JMH create transaction");
+        vo.setDebitAccount("100001");
+        vo.setCreditAccount("200001");
+        vo.setCurrency(Constants.DEFAULT_CURRENCY);
+        return app.transactionService.createTransaction(vo, Constants.TX_CONTEXT_CREATE, "jmh");
+    }
+
+    @Benchmark
+    public Integer handleTransaction(SeededApplication app, SubmittedRow row) {
+        TransactionVO vo = new TransactionVO();
+        vo.setId(row.id);
+        return app.transactionService.handleTransaction(vo, Constants.TX_CONTEXT_APPROVE, "jmh");
+    }
+
+    @Benchmark
+    public TransactionVO getTransactionByIdCacheHit(SeededApplication app, Cursor cursor) {
+        // a small working set that stays resident in the cache after the first warmup iteration
+        return app.transactionService.getTransactionById(app.id(cursor.next++ % 64), "jmh");
+    }
+
+    @Benchmark
+    public TransactionVO getTransactionByIdCacheMiss(SeededApplication app, EvictedRow row) {
+        return app.transactionService.getTransactionById(row.id, "jmh");
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.server.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #begin()} and
+ * {@link #end()}. A JDBC batch is prepared once, so it counts as one statement however many rows it
+ * carries. Statements issued through {@code JdbcTemplate} (export, description index) bypass
+ * Hibernate and are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> statements = new ThreadLocal<>();
+
+    public void begin() {
+        statements.set(new int[1]);
+    }
+
+    // returns the statements counted since begin(), or -1 when counting was not started on this thread
+    public int end() {
+        int[] count = statements.get();
+        statements.remove();
+        return count == null ? -1 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = statements.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.server.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Storage modes. {@code memory} (the default) starts every run from schema.sql and data.sql in a fresh
+ * in-memory database. {@code file}, set by the {@code file} profile, keeps the database in an H2 file
+ * across restarts and runs the SQL scripts only until {@link DurableStorage} has marked it initialized.
+ */
+@Configuration
+@Slf4j
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "transaction.storage.mode", havingValue = "file")
+    public DurableStorage durableStorage(DataSource dataSource) {
+        return new DurableStorage(dataSource);
+    }
+
+    // replaces Boot's initializer of the same name, which runs the scripts on every start
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(
+            DataSource dataSource, SqlInitializationProperties properties, ObjectProvider<DurableStorage> durableStorage) {
+        DurableStorage storage = durableStorage.getIfAvailable();
+        return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties) {
+            @Override
+            public boolean initializeDatabase() {
+                if (storage != null && storage.isInitialized()) {
+                    log.info("Skipping SQL init, the storage was initialized on an earlier start");
+                    return false;
+                }
+                boolean initialized = super.initializeDatabase();
+                if (storage != null) {
+                    storage.markInitialized();
+                }
+                return initialized;
+            }
+        };
+    }
+}
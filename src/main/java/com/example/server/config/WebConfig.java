@@ -0,0 +1,43 @@
+package com.example.server.config;
+
+import com.example.server.controller.ConnectionPermitInterceptor;
+import com.example.server.controller.SqlStatementMetricsInterceptor;
+import com.example.server.service.ConnectionPermits;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConnectionPermits connectionPermits;
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public WebConfig(ConnectionPermits connectionPermits, SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+        this.connectionPermits = connectionPermits;
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Accept: application/cbor, configured like the JSON mapper (spring.jackson.*, ISO dates) instead of
+    // the converter's own defaults, so both encodings carry the same values
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // summary and changes are served from memory; search takes its permit only when the cache misses
+        registry.addInterceptor(new ConnectionPermitInterceptor(connectionPermits)).addPathPatterns("/transaction/**")
+                .excludePathPatterns("/transaction/summary", "/transaction/changes", "/transaction/search");
+        registry.addInterceptor(new SqlStatementMetricsInterceptor(sqlStatementCounter, meterRegistry))
+                .addPathPatterns("/transaction/**");
+    }
+}
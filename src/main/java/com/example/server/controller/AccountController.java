@@ -0,0 +1,33 @@
+package com.example.server.controller;
+
+import com.example.server.model.ApiResponse;
+import com.example.server.model.vo.AccountBalanceVO;
+import com.example.server.service.TransactionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/account")
+public class AccountController {
+
+    private final TransactionService transactionService;
+
+    public AccountController(TransactionService transactionService) {
+        this.transactionService = transactionService;
+        log.info("AccountController initialized with TransactionService");
+    }
+
+    // approved totals per currency, served from the in-memory balance index
+    @GetMapping("/{id}/balance")
+    public ApiResponse<List<AccountBalanceVO>> getAccountBalance(@PathVariable String id,
+                                                                 @RequestParam(required = false) String currency) {
+        return ApiResponse.success(transactionService.getAccountBalance(id, currency));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.server.controller;
+
+import com.example.server.service.ConnectionPermits;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Holds a {@link ConnectionPermits} permit while a transaction request that reads or writes the
+ * database is handled. A request that cannot get one in time fails in {@link #preHandle} with a
+ * SERVER_BUSY response. Endpoints served from memory are not intercepted, and search takes its permit
+ * in the service only when its result is not cached.
+ * <p>
+ * An async request (export) gives its permit back once the handler returns; the streaming task
+ * takes its own permit for as long as it reads from the database.
+ */
+public class ConnectionPermitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConnectionPermitInterceptor.class.getName() + ".PERMIT";
+
+    private final ConnectionPermits connectionPermits;
+
+    public ConnectionPermitInterceptor(ConnectionPermits connectionPermits) {
+        this.connectionPermits = connectionPermits;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        connectionPermits.acquire();
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            connectionPermits.release();
+        }
+    }
+}
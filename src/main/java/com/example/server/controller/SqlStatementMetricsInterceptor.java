@@ -0,0 +1,59 @@
+package com.example.server.controller;
+
+import com.example.server.config.SqlStatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records how many SQL statements each transaction request issued as the
+ * {@code transaction.sql.statements} summary, tagged with the request method and URI pattern.
+ */
+public class SqlStatementMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementMetricsInterceptor(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the async dispatch that completes an export only writes the response
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            sqlStatementCounter.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request);
+    }
+
+    private void record(HttpServletRequest request) {
+        int statements = sqlStatementCounter.end();
+        if (statements < 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("transaction.sql.statements")
+                .description("SQL statements issued per transaction request")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 25, 50)
+                .register(meterRegistry)
+                .record(statements);
+    }
+}
@@ -1,24 +1,50 @@
 package com.example.server.controller;
 
-import com.example.server.model.data.Transaction;
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
+import com.example.server.model.vo.BatchItemResultVO;
+import com.example.server.model.vo.SearchPageVO;
+import com.example.server.model.vo.TransactionAuditVO;
+import com.example.server.model.vo.TransactionColumnsVO;
+import com.example.server.model.vo.TransactionSearchResultVO;
 import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.model.vo.TransactionSummaryVO;
 import com.example.server.model.vo.TransactionVO;
+import com.example.server.service.TransactionChangeFeed;
+import com.example.server.service.TransactionExportService;
 import com.example.server.service.TransactionService;
 import com.example.server.util.Constants;
+import com.example.server.util.TransactionMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.*;
 import com.example.server.model.ApiResponse;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
 @Slf4j
 @RestController()
 @RequestMapping("/transaction")
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final TransactionChangeFeed transactionChangeFeed;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, TransactionExportService transactionExportService,
+                                 TransactionChangeFeed transactionChangeFeed) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.transactionChangeFeed = transactionChangeFeed;
         log.info("TransactionController initialized with TransactionService");
     }
 
@@ -29,6 +55,12 @@ public class TransactionController {
         return ApiResponse.success(transactionService.createTransaction(transaction, Constants.TX_CONTEXT_CREATE, userId));
     }
 
+    @PostMapping("/create/batch")
+    public ApiResponse<List<BatchItemResultVO<TransactionVO>>> createTransactions(@RequestBody List<TransactionVO> transactions,
+                                                                             @RequestParam String userId) {
+        return ApiResponse.success(transactionService.createTransactions(transactions, Constants.TX_CONTEXT_CREATE, userId));
+    }
+
     @PutMapping("/update")
     public ApiResponse<Integer> updateTransaction(@RequestBody TransactionVO transaction,
                                                       @RequestParam String userId) {
@@ -56,10 +88,62 @@ public class TransactionController {
         return ApiResponse.success(approved);
     }
 
+    @PostMapping("/approve/batch")
+    public ApiResponse<List<BatchItemResultVO<Long>>> approveTransactions(@RequestBody List<Long> ids,
+                                                                       @RequestParam String userId) {
+        return ApiResponse.success(transactionService.handleTransactions(ids, Constants.TX_CONTEXT_APPROVE, userId));
+    }
+
+    @PostMapping("/reject/batch")
+    public ApiResponse<List<BatchItemResultVO<Long>>> rejectTransactions(@RequestBody List<Long> ids,
+                                                                      @RequestParam String userId) {
+        return ApiResponse.success(transactionService.handleTransactions(ids, Constants.TX_CONTEXT_REJECT, userId));
+    }
+
+    @PostMapping("/cancel/batch")
+    public ApiResponse<List<BatchItemResultVO<Long>>> cancelTransactions(@RequestBody List<Long> ids,
+                                                                      @RequestParam String userId) {
+        return ApiResponse.success(transactionService.handleTransactions(ids, Constants.TX_CONTEXT_CANCEL, userId));
+    }
+
+    // strong ETag of id and row version; a matching If-None-Match gets a 304 from a version lookup alone
     @GetMapping("/{id}")
-    public ApiResponse<TransactionVO> getTransactionById(@PathVariable Long id,
-                                                       @RequestParam String userId) {
-        return ApiResponse.success(transactionService.getTransactionById(id, userId));
+    public ResponseEntity<ApiResponse<TransactionVO>> getTransactionById(@PathVariable Long id,
+                                                                         @RequestParam String userId,
+                                                                         @RequestHeader HttpHeaders headers) {
+        Long version = transactionService.getTransactionVersion(id);
+        if (version != null && matches(headers.getIfNoneMatch(), eTag(id, version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag(id, version)).build();
+        }
+        // the body may be newer than the version looked up above, so its own version is the ETag
+        TransactionVO transaction = transactionService.getTransactionById(id, userId);
+        return ResponseEntity.ok().eTag(eTag(id, transaction.getVersion())).body(ApiResponse.success(transaction));
+    }
+
+    // served from in-memory counters, so dashboards can poll it without count queries
+    @GetMapping("/summary")
+    public ApiResponse<List<TransactionSummaryVO>> getTransactionSummary(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ApiResponse.success(transactionService.getTransactionSummary(status, currency, type, startDate, endDate));
+    }
+
+    // server-sent events of committed changes; a reconnecting client resumes after its Last-Event-ID
+    @GetMapping("/changes")
+    public SseEmitter streamChanges(@RequestParam(required = false) String status,
+                                    @RequestParam(required = false) String submittedBy,
+                                    @RequestParam(required = false) Long after,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return transactionChangeFeed.subscribe(status, submittedBy, lastEventId != null ? lastEventId : after);
+    }
+
+    @GetMapping("/{id}/audit")
+    public ApiResponse<List<TransactionAuditVO>> getTransactionAudit(@PathVariable Long id,
+                                                                    @RequestParam String userId) {
+        return ApiResponse.success(transactionService.getTransactionAudit(id, userId));
     }
 
     @DeleteMapping("/{id}")
@@ -69,7 +153,52 @@ public class TransactionController {
     }
 
     @PostMapping("/search")
-    public Page<Transaction> searchTransaction(@RequestBody TransactionSearchVO searchVO) {
-        return transactionService.searchTransaction(searchVO);
+    public SearchPageVO<TransactionSearchResultVO> searchTransaction(@RequestBody TransactionSearchVO searchVO) {
+        if (Constants.PAGINATION_KEYSET.equalsIgnoreCase(searchVO.getPagination())) {
+            return transactionService.searchTransactionByCursor(searchVO);
+        }
+        return TransactionMapper.toOffsetPage(transactionService.searchTransaction(searchVO));
+    }
+
+    // the same search with one array per field, for clients sending Accept: application/vnd.transaction.columnar+json
+    @PostMapping(value = "/search", produces = Constants.MEDIA_TYPE_COLUMNAR_JSON)
+    public TransactionColumnsVO searchTransactionColumns(@RequestBody TransactionSearchVO searchVO) {
+        if (Constants.PAGINATION_KEYSET.equalsIgnoreCase(searchVO.getPagination())) {
+            return TransactionMapper.toColumns(transactionService.searchTransactionByCursor(searchVO));
+        }
+        return TransactionMapper.toColumns(transactionService.searchTransaction(searchVO));
+    }
+
+    // stream every matching row; paging fields of the search body are ignored
+    @PostMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestBody TransactionSearchVO searchVO,
+                                                                    @RequestParam(defaultValue = Constants.EXPORT_FORMAT_NDJSON) String format) {
+        String normalized = format.toLowerCase(Locale.ROOT);
+        MediaType mediaType;
+        if (Constants.EXPORT_FORMAT_CSV.equals(normalized)) {
+            mediaType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if (Constants.EXPORT_FORMAT_NDJSON.equals(normalized)) {
+            mediaType = MediaType.parseMediaType(Constants.MEDIA_TYPE_NDJSON);
+        } else {
+            // reject before the response is committed
+            log.error("Unsupported export format: {}", format);
+            throw new BusinessException(ExecutionCode.INVALID_PARAMETER);
+        }
+        StreamingResponseBody body = out -> transactionExportService.exportTransactions(searchVO, normalized, out);
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    private static String eTag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // If-None-Match compares weakly, so a W/ prefix added by an intermediary still matches
+    private static boolean matches(List<String> ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || eTag.equals(candidate) || ("W/" + eTag).equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
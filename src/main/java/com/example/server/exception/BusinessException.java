@@ -1,6 +1,6 @@
 package com.example.server.exception;
 
-import com.example.server.model.ExecutionCode;
+import com.example.server.model.ExecutionStatus;
 import lombok.Getter;
 
 @Getter
@@ -12,9 +12,9 @@ public class BusinessException extends RuntimeException {
         this.code = code;
     }
 
-    public BusinessException(ExecutionCode executionCode) {
-        super(executionCode.getMessage());
+    public BusinessException(ExecutionStatus executionStatus) {
+        super(executionStatus.getMessage());
 
-        this.code = executionCode.getCode();
+        this.code = executionStatus.getCode();
     }
 }
\ No newline at end of file
@@ -1,30 +1,44 @@
 package com.example.server.model;
 
 import lombok.Getter;
-import lombok.Setter;
 
 @Getter
-public enum ExecutionCode {
+public enum ExecutionCode implements ExecutionStatus {
     INVALID_PARAMETER(4001, "Invalid parameter"),
     NOT_FOUND(4004, "Resource not found"),
     UNAUTHORIZED(4003, "Unauthorized operation"),
     BUSINESS_ERROR(4000, "Business error"),
+    CONFLICT(4009, "Transaction was modified concurrently"),
     SYSTEM_ERROR(5000, "System error"),
+    SERVER_BUSY(5003, "Server is busy, please retry later"),
 
 
     SUCCESS(200, "Success"),;
 
 
     private final int code;
-    private String message;
+    private final String message;
 
     ExecutionCode(int code, String message) {
         this.code = code;
         this.message = message;
     }
 
-    public ExecutionCode withProperty(String property) {
-        this.message = this.message + " - " + property;
-        return this;
+    // a new value each call; the constant itself keeps its message
+    public ExecutionStatus withProperty(String property) {
+        return new Qualified(code, message + " - " + property);
+    }
+
+    private record Qualified(int code, String message) implements ExecutionStatus {
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
     }
 }
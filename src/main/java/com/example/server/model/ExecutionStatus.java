@@ -0,0 +1,12 @@
+package com.example.server.model;
+
+/**
+ * Code and message of an outcome. {@link ExecutionCode} constants are the fixed ones; a code qualified
+ * with the offending property is a separate immutable value, so the shared constants never change.
+ */
+public interface ExecutionStatus {
+
+    int getCode();
+
+    String getMessage();
+}
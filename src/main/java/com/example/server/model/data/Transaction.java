@@ -10,11 +10,20 @@ import java.time.*;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_status_date", columnList = "status, transaction_date"),
+        @Index(name = "idx_transactions_submitted_by_status", columnList = "submitted_by, status"),
+        @Index(name = "idx_transactions_approved_by", columnList = "approved_by"),
+        @Index(name = "idx_transactions_type_date", columnList = "type, transaction_date"),
+        @Index(name = "idx_transactions_date", columnList = "transaction_date"),
+        @Index(name = "idx_transactions_debit_account_amount", columnList = "debit_account, amount"),
+        @Index(name = "idx_transactions_credit_account_amount", columnList = "credit_account, amount")
+})
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Column(length = 50)
@@ -55,4 +64,8 @@ public class Transaction {
 
     @Column(name = "approved_at")
     private LocalDateTime approvedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
\ No newline at end of file
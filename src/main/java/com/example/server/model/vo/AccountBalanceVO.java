@@ -0,0 +1,30 @@
+package com.example.server.model.vo;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Approved totals of one account in one currency: the amounts credited to and debited from it, the
+ * net position credited minus debited, and the number of approved transactions on either side.
+ */
+@Getter
+public class AccountBalanceVO {
+
+    private final String account;
+    private final String currency;
+    private final BigDecimal credited;
+    private final BigDecimal debited;
+    private final BigDecimal net;
+    private final long count;
+
+    public AccountBalanceVO(String account, String currency, BigDecimal credited, BigDecimal debited,
+                            BigDecimal net, long count) {
+        this.account = account;
+        this.currency = currency;
+        this.credited = credited;
+        this.debited = debited;
+        this.net = net;
+        this.count = count;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.server.model.vo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of one item of a batch request. {@code index} is the position of the item in the request,
+ * {@code code}/{@code message} follow {@link com.example.server.model.ExecutionCode}.
+ */
+@Getter
+@Setter
+public class BatchItemResultVO<T> {
+    private int index;
+    private int code;
+    private String message;
+    private T data;
+
+    public BatchItemResultVO(int index, int code, String message, T data) {
+        this.index = index;
+        this.code = code;
+        this.message = message;
+        this.data = data;
+    }
+}
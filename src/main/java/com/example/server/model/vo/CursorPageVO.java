@@ -0,0 +1,23 @@
+package com.example.server.model.vo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public final class CursorPageVO<T> implements SearchPageVO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    // opaque token to pass as TransactionSearchVO.cursor for the next page, null on the last page
+    private String nextCursor;
+
+    public CursorPageVO(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
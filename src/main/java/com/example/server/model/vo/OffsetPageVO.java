@@ -0,0 +1,35 @@
+package com.example.server.model.vo;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A numbered search page with the totals of its count query, in the fields a Spring {@code Page} is
+ * written with, less its {@code pageable} and {@code sort}.
+ */
+@Getter
+public final class OffsetPageVO<T> implements SearchPageVO<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final int number;
+    private final int numberOfElements;
+    private final long totalElements;
+    private final int totalPages;
+    private final boolean first;
+    private final boolean last;
+    private final boolean empty;
+
+    public OffsetPageVO(List<T> content, int size, int number, long totalElements, int totalPages) {
+        this.content = content;
+        this.size = size;
+        this.number = number;
+        this.numberOfElements = content.size();
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+        this.first = number == 0;
+        this.last = number + 1 >= totalPages;
+        this.empty = content.isEmpty();
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.server.model.vo;
+
+import java.util.List;
+
+/**
+ * One page of a search, in the pagination mode the request asked for: {@link OffsetPageVO} for numbered
+ * pages, {@link CursorPageVO} for keyset pages.
+ */
+public sealed interface SearchPageVO<T> permits OffsetPageVO, CursorPageVO {
+
+    List<T> getContent();
+
+    int getSize();
+}
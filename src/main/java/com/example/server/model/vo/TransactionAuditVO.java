@@ -0,0 +1,31 @@
+package com.example.server.model.vo;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the audit trail of a transaction. {@code action} is the operation context
+ * (UPDATE, APPROVE, REJECT, CANCEL, DELETE); {@code toStatus} is null for deletes.
+ */
+@Getter
+@Setter
+public class TransactionAuditVO {
+    private Long transactionId;
+    private String action;
+    private String fromStatus;
+    private String toStatus;
+    private String userId;
+    private LocalDateTime occurredAt;
+
+    public TransactionAuditVO(Long transactionId, String action, String fromStatus, String toStatus, String userId,
+                              LocalDateTime occurredAt) {
+        this.transactionId = transactionId;
+        this.action = action;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.userId = userId;
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.server.model.vo;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed change of one transaction, as pushed by the change feed. {@code fromStatus} is null
+ * for CREATE and {@code toStatus} is null for DELETE. Sequence numbers increase by one per change.
+ */
+@Getter
+public class TransactionChangeVO {
+
+    private final long sequence;
+    private final String action;
+    private final Long transactionId;
+    private final String fromStatus;
+    private final String toStatus;
+    private final String submittedBy;
+    private final LocalDateTime occurredAt;
+
+    public TransactionChangeVO(long sequence, String action, Long transactionId, String fromStatus, String toStatus,
+                               String submittedBy, LocalDateTime occurredAt) {
+        this.sequence = sequence;
+        this.action = action;
+        this.transactionId = transactionId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.submittedBy = submittedBy;
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.server.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A search page in columnar layout: one array per field, where row {@code i} of the page is element
+ * {@code i} of every array, so each field name is written once per page instead of once per row.
+ * A field that is null in every row (not selected with {@code fields}, or unset on all of these rows)
+ * has no array. Offset pages carry {@code page}, {@code totalElements} and {@code totalPages}; keyset
+ * pages carry {@code hasNext} and {@code nextCursor}.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionColumnsVO {
+
+    private final int rows;
+    private final Map<String, List<Object>> columns;
+    private final int size;
+    private final Integer page;
+    private final Long totalElements;
+    private final Integer totalPages;
+    private final Boolean hasNext;
+    private final String nextCursor;
+
+    public TransactionColumnsVO(int rows, Map<String, List<Object>> columns, int size, Integer page,
+                                Long totalElements, Integer totalPages, Boolean hasNext, String nextCursor) {
+        this.rows = rows;
+        this.columns = columns;
+        this.size = size;
+        this.page = page;
+        this.totalElements = totalElements;
+        this.totalPages = totalPages;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.server.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only row of a search result. Built from entities loaded without dirty-checking snapshots,
+ * so search responses never expose managed {@link com.example.server.model.data.Transaction}s.
+ * A search with {@code fields} leaves the other properties null, and null properties are not serialized.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionSearchResultVO {
+
+    private final Long id;
+    private final String type;
+    private final BigDecimal amount;
+    private final LocalDateTime transactionDate;
+    private final String transactionDescription;
+    private final String debitAccount;
+    private final String creditAccount;
+    private final String currency;
+    private final String status;
+    private final LocalDateTime lastUpdated;
+    private final String submittedBy;
+    private final LocalDateTime submittedAt;
+    private final String approvedBy;
+    private final LocalDateTime approvedAt;
+    private final Long version;
+
+    public TransactionSearchResultVO(Long id, String type, BigDecimal amount, LocalDateTime transactionDate,
+                                     String transactionDescription, String debitAccount, String creditAccount,
+                                     String currency, String status, LocalDateTime lastUpdated, String submittedBy,
+                                     LocalDateTime submittedAt, String approvedBy, LocalDateTime approvedAt,
+                                     Long version) {
+        this.id = id;
+        this.type = type;
+        this.amount = amount;
+        this.transactionDate = transactionDate;
+        this.transactionDescription = transactionDescription;
+        this.debitAccount = debitAccount;
+        this.creditAccount = creditAccount;
+        this.currency = currency;
+        this.status = status;
+        this.lastUpdated = lastUpdated;
+        this.submittedBy = submittedBy;
+        this.submittedAt = submittedAt;
+        this.approvedBy = approvedBy;
+        this.approvedAt = approvedAt;
+        this.version = version;
+    }
+}
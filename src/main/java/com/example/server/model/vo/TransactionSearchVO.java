@@ -4,7 +4,9 @@ import com.example.server.util.Constants;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
@@ -17,9 +19,23 @@ public class TransactionSearchVO {
     private String status;
     private String submittedBy;
     private String approvedBy;
+    private String debitAccount;
+    private String creditAccount;
+    // matches transactions with this account on either the debit or the credit side
+    private String account;
+    private String currency;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
 
     private int page = 0;
     private int pageSize = 50;
     private String sortBy = "id";
     private String sortDirection = Constants.DESC;
+
+    // offset: page/pageSize with total count; keyset: seek from cursor, no count query
+    private String pagination = Constants.PAGINATION_OFFSET;
+    private String cursor;
+
+    // properties to return, e.g. ["id","amount","status"]; empty returns all of them
+    private List<String> fields;
 }
@@ -0,0 +1,26 @@
+package com.example.server.model.vo;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of transactions and sum of their amounts for one status, currency and type over a date range.
+ */
+@Getter
+public class TransactionSummaryVO {
+
+    private final String status;
+    private final String currency;
+    private final String type;
+    private final long count;
+    private final BigDecimal amount;
+
+    public TransactionSummaryVO(String status, String currency, String type, long count, BigDecimal amount) {
+        this.status = status;
+        this.currency = currency;
+        this.type = type;
+        this.count = count;
+        this.amount = amount;
+    }
+}
@@ -26,4 +26,6 @@ public class TransactionVO {
     private LocalDateTime submittedAt;
     private String approvedBy;
     private LocalDateTime approvedAt;
+    // optional on update/approve/reject/cancel: when set, the change only applies to this row version
+    private Long version;
 }
@@ -0,0 +1,33 @@
+package com.example.server.repository;
+
+import com.example.server.model.data.ArchivedTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and deletes of the cold tier. Rows only get here through TransactionArchiver, which copies
+ * them with plain SQL, so there are no save or update methods.
+ */
+@Repository
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long>,
+        JpaSpecificationExecutor<ArchivedTransaction> {
+
+    @Transactional
+    @Query(value = "SELECT status AS \"status\", currency AS \"currency\", type AS \"type\", " +
+            "transaction_date AS \"transactionDate\", amount AS \"amount\", debit_account AS \"debitAccount\", " +
+            "credit_account AS \"creditAccount\", submitted_by AS \"submittedBy\" FROM OLD TABLE (DELETE FROM transactions_archive WHERE id = :id)", nativeQuery = true)
+    List<TransactionRepository.SummaryView> deleteArchivedTransactionById(Long id);
+
+    @Query("select a.version from ArchivedTransaction a where a.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("select a.id from ArchivedTransaction a where a.id in :ids")
+    List<Long> findArchivedIds(Collection<Long> ids);
+}
@@ -0,0 +1,38 @@
+package com.example.server.repository;
+
+import com.example.server.model.data.Transaction;
+import com.example.server.model.vo.TransactionSearchResultVO;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Search queries that select only some columns of {@code transactions} or {@code transactions_archive}.
+ * The rows come back as scalar tuples, so no entity is instantiated, managed or dirty-checked.
+ */
+public interface TransactionProjectionRepository {
+
+    /**
+     * Transaction properties a projected search may select, in response order.
+     */
+    List<String> PROJECTABLE_FIELDS = List.of("id", "type", "amount", "transactionDate", "transactionDescription",
+            "debitAccount", "creditAccount", "currency", "status", "lastUpdated", "submittedBy", "submittedAt",
+            "approvedBy", "approvedAt", "version");
+
+    /**
+     * Selects {@code fields} of the rows matching {@code spec}; the other properties of each result are null.
+     */
+    default List<TransactionSearchResultVO> findProjected(Specification<Transaction> spec, Set<String> fields, Sort sort,
+                                                          long offset, int limit) {
+        return findProjected(Transaction.class, spec, fields, sort, offset, limit);
+    }
+
+    /**
+     * Same as above on the tier mapped by {@code tier}: {@link Transaction} or
+     * {@link com.example.server.model.data.ArchivedTransaction}.
+     */
+    <T> List<TransactionSearchResultVO> findProjected(Class<T> tier, Specification<T> spec, Set<String> fields,
+                                                      Sort sort, long offset, int limit);
+}
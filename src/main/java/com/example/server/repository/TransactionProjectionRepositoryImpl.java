@@ -0,0 +1,76 @@
+package com.example.server.repository;
+
+import com.example.server.model.vo.TransactionSearchResultVO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+class TransactionProjectionRepositoryImpl implements TransactionProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    TransactionProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public <T> List<TransactionSearchResultVO> findProjected(Class<T> tier, Specification<T> spec, Set<String> fields,
+                                                             Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(tier);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        fields.forEach(field -> selections.add(root.get(field).alias(field)));
+        query.multiselect(selections);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+        List<TransactionSearchResultVO> results = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            results.add(new TransactionSearchResultVO(
+                    value(tuple, fields, "id", Long.class),
+                    value(tuple, fields, "type", String.class),
+                    value(tuple, fields, "amount", BigDecimal.class),
+                    value(tuple, fields, "transactionDate", LocalDateTime.class),
+                    value(tuple, fields, "transactionDescription", String.class),
+                    value(tuple, fields, "debitAccount", String.class),
+                    value(tuple, fields, "creditAccount", String.class),
+                    value(tuple, fields, "currency", String.class),
+                    value(tuple, fields, "status", String.class),
+                    value(tuple, fields, "lastUpdated", LocalDateTime.class),
+                    value(tuple, fields, "submittedBy", String.class),
+                    value(tuple, fields, "submittedAt", LocalDateTime.class),
+                    value(tuple, fields, "approvedBy", String.class),
+                    value(tuple, fields, "approvedAt", LocalDateTime.class),
+                    value(tuple, fields, "version", Long.class)));
+        }
+        return results;
+    }
+
+    private static <T> T value(Tuple tuple, Set<String> fields, String field, Class<T> type) {
+        return fields.contains(field) ? tuple.get(field, type) : null;
+    }
+}
@@ -1,29 +1,124 @@
 package com.example.server.repository;
 
 import com.example.server.model.data.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
-    @Modifying
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction>,
+        TransactionProjectionRepository {
+
+    // search results are mapped straight to read-only VOs; read-only entities skip the dirty-checking snapshot
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Page<Transaction> findAll(Specification<Transaction> spec, Pageable pageable);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    <S extends Transaction, R> R findBy(Specification<Transaction> spec, Function<? super SpecificationFluentQuery<S>, R> queryFunction);
+
+    @Query("select t.version from Transaction t where t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // the row as it was before a write, selected from the write's OLD TABLE so it costs no extra statement
+    String PRIOR_ROW = "id AS \"id\", status AS \"status\", version AS \"version\", last_updated AS \"lastUpdated\", " +
+            "currency AS \"currency\", type AS \"type\", transaction_date AS \"transactionDate\", amount AS \"amount\", " +
+            "debit_account AS \"debitAccount\", credit_account AS \"creditAccount\", submitted_by AS \"submittedBy\"";
+
+    // The guarded writes return the rows they changed as they were before. Inside a data change delta table
+    // H2 may apply the write to a row a concurrent transaction has just moved out of the guarded status (the
+    // status is indexed), so callers check the guard again on the returned row and undo a write it fails.
     @Transactional
-    @Query("update Transaction t set t.type = :type, t.amount = :amount, t.transactionDate = :transactionDate, " +
-            "t.transactionDescription = :transactionDescription, t.debitAccount = :debitAccount, " +
-            "t.creditAccount = :creditAccount, t.currency = :currency, t.lastUpdated = :lastUpdated, t.status='SUBMITTED' where t.id = :id")
-    int updateTransactionBasicInfoById(Long id, String type, BigDecimal amount, LocalDateTime transactionDate,
-                                       String transactionDescription, String debitAccount,
-                                       String creditAccount, String currency, LocalDateTime lastUpdated);
+    @Query(value = "SELECT " + PRIOR_ROW + " FROM OLD TABLE (UPDATE transactions SET type = :type, amount = :amount, " +
+            "transaction_date = :transactionDate, transaction_description = :transactionDescription, " +
+            "debit_account = :debitAccount, credit_account = :creditAccount, currency = :currency, " +
+            "last_updated = :lastUpdated, status = 'SUBMITTED', version = version + 1 " +
+            "WHERE id = :id AND status IN (:expectedStatuses) AND (CAST(:version AS BIGINT) IS NULL OR version = :version))",
+            nativeQuery = true)
+    List<PriorRowView> updateTransactionBasicInfoById(Long id, Collection<String> expectedStatuses, Long version, String type,
+                                                      BigDecimal amount, LocalDateTime transactionDate,
+                                                      String transactionDescription, String debitAccount,
+                                                      String creditAccount, String currency, LocalDateTime lastUpdated);
 
+    @Transactional
+    @Query(value = "SELECT " + PRIOR_ROW + " FROM OLD TABLE (UPDATE transactions SET status = :status, " +
+            "last_updated = :lastUpdated, version = version + 1 WHERE id = :id AND status = :expectedStatus " +
+            "AND (CAST(:version AS BIGINT) IS NULL OR version = :version))", nativeQuery = true)
+    List<PriorRowView> updateTransactionStatusById(Long id, String expectedStatus, Long version, String status,
+                                                   LocalDateTime lastUpdated);
+
+    @Transactional
+    @Query(value = "SELECT " + PRIOR_ROW + " FROM OLD TABLE (UPDATE transactions SET status = :status, " +
+            "last_updated = :lastUpdated, version = version + 1 WHERE id IN (:ids) AND status = :expectedStatus)",
+            nativeQuery = true)
+    List<PriorRowView> updateTransactionStatusByIds(Collection<Long> ids, String expectedStatus, String status,
+                                                    LocalDateTime lastUpdated);
+
+    // puts back the status columns of a row whose guarded write turned out not to hold; the write's row lock
+    // is still held, so nothing has changed the row since
     @Modifying
     @Transactional
-    @Query("update Transaction t set t.status = :status, t.lastUpdated = :lastUpdated where t.id = :id")
-    int updateTransactionStatusById(Long id, String status, LocalDateTime lastUpdated);
+    @Query("update Transaction t set t.status = :status, t.version = :version, t.lastUpdated = :lastUpdated where t.id = :id")
+    int restoreTransactionStatusById(Long id, String status, Long version, LocalDateTime lastUpdated);
+
+    // returns the deleted row, empty when there was none; the delete has no guard on a changing column
+    @Transactional
+    @Query(value = "SELECT status AS \"status\", currency AS \"currency\", type AS \"type\", " +
+            "transaction_date AS \"transactionDate\", amount AS \"amount\", debit_account AS \"debitAccount\", " +
+            "credit_account AS \"creditAccount\", submitted_by AS \"submittedBy\" FROM OLD TABLE (DELETE FROM transactions WHERE id = :id)", nativeQuery = true)
+    List<SummaryView> deleteTransactionById(Long id);
+
+    // explain rejected writes only; a successful write reads nothing
+    @Query("select t.id as id, t.status as status, t.version as version from Transaction t where t.id = :id")
+    Optional<StatusView> findStatusById(Long id);
+
+    @Query("select t.id as id, t.status as status, t.version as version from Transaction t where t.id in :ids")
+    List<StatusView> findStatusesByIds(Collection<Long> ids);
+
+    interface StatusView {
+        Long getId();
+
+        String getStatus();
+
+        Long getVersion();
+    }
+
+    interface SummaryView {
+        String getStatus();
+
+        String getCurrency();
+
+        String getType();
+
+        LocalDateTime getTransactionDate();
+
+        BigDecimal getAmount();
+
+        String getDebitAccount();
+
+        String getCreditAccount();
+
+        String getSubmittedBy();
+    }
+
+    interface PriorRowView extends StatusView, SummaryView {
+        LocalDateTime getLastUpdated();
+    }
 }
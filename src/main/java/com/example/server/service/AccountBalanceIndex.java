@@ -0,0 +1,156 @@
+package com.example.server.service;
+
+import com.example.server.model.vo.AccountBalanceVO;
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory credited and debited totals of APPROVED transactions per account and currency.
+ * <p>
+ * The totals are loaded from the live and archive tables at startup and then follow every committed
+ * write through {@link TransactionChangedEvent}: a transaction counts towards its credit and debit
+ * accounts while it is APPROVED, so approving one adds it and deleting an approved one takes it out.
+ * Amounts are kept as {@link LongAdder}s of cents, the scale of the amount column, so concurrent
+ * approvals on the same account add to striped cells instead of contending on a lock, and a lookup
+ * reads one account's currencies without touching the database. A total over roughly 9.2e16 in one
+ * currency overflows.
+ */
+@Component
+@Slf4j
+public class AccountBalanceIndex implements SmartInitializingSingleton {
+
+    private static final int AMOUNT_SCALE = 2;
+    // ConcurrentHashMap takes no null keys; rows without a currency are kept under this one
+    private static final String NO_CURRENCY = "";
+    private static final String APPROVED_ROWS = "(SELECT debit_account, credit_account, currency, amount FROM transactions " +
+            "WHERE status = '" + Constants.TX_STATUS_APPROVED + "' UNION ALL " +
+            "SELECT debit_account, credit_account, currency, amount FROM transactions_archive " +
+            "WHERE status = '" + Constants.TX_STATUS_APPROVED + "')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile ConcurrentMap<String, ConcurrentMap<String, Balance>> accounts = new ConcurrentHashMap<>();
+
+    public AccountBalanceIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the totals from both tables, with the same caveat as {@link TransactionSummaryCounters#rebuild()}.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ConcurrentMap<String, ConcurrentMap<String, Balance>> rebuilt = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT credit_account, currency, COUNT(*), SUM(amount) FROM " + APPROVED_ROWS +
+                        " GROUP BY credit_account, currency",
+                resultSet -> {
+                    Balance balance = balance(rebuilt, resultSet.getString(1), resultSet.getString(2));
+                    balance.credited.add(toCents(resultSet.getBigDecimal(4)));
+                    balance.count.add(resultSet.getLong(3));
+                });
+        jdbcTemplate.query("SELECT debit_account, currency, COUNT(*), SUM(amount) FROM " + APPROVED_ROWS +
+                        " GROUP BY debit_account, currency",
+                resultSet -> {
+                    Balance balance = balance(rebuilt, resultSet.getString(1), resultSet.getString(2));
+                    balance.debited.add(toCents(resultSet.getBigDecimal(4)));
+                    balance.count.add(resultSet.getLong(3));
+                });
+        accounts = rebuilt;
+        log.info("Account balance index rebuilt with {} accounts in {} ms", rebuilt.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Approved totals of the account, one entry per currency, or only the given currency when it is
+     * not empty. An account without approved transactions has no entries.
+     */
+    public List<AccountBalanceVO> balances(String account, String currency) {
+        Map<String, Balance> currencies = account == null ? null : accounts.get(account);
+        if (currencies == null) {
+            return List.of();
+        }
+        List<AccountBalanceVO> balances = new ArrayList<>();
+        for (Map.Entry<String, Balance> entry : currencies.entrySet()) {
+            if (currency != null && !currency.isEmpty() && !currency.equals(entry.getKey())) {
+                continue;
+            }
+            Balance balance = entry.getValue();
+            long count = balance.count.sum();
+            if (count > 0) {
+                long credited = balance.credited.sum();
+                long debited = balance.debited.sum();
+                String key = entry.getKey();
+                balances.add(new AccountBalanceVO(account, NO_CURRENCY.equals(key) ? null : key, toAmount(credited),
+                        toAmount(debited), toAmount(credited - debited), count));
+            }
+        }
+        balances.sort(Comparator.comparing(AccountBalanceVO::getCurrency, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return balances;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        event.forEachDelta(this::add);
+    }
+
+    private void add(TransactionVO transaction, String status, int sign) {
+        if (!Constants.TX_STATUS_APPROVED.equals(status) || transaction.getAmount() == null) {
+            return;
+        }
+        long cents = sign * toCents(transaction.getAmount());
+        ConcurrentMap<String, ConcurrentMap<String, Balance>> current = accounts;
+        Balance credit = balance(current, transaction.getCreditAccount(), transaction.getCurrency());
+        credit.credited.add(cents);
+        credit.count.add(sign);
+        Balance debit = balance(current, transaction.getDebitAccount(), transaction.getCurrency());
+        debit.debited.add(cents);
+        debit.count.add(sign);
+    }
+
+    private static Balance balance(ConcurrentMap<String, ConcurrentMap<String, Balance>> accounts,
+                                   String account, String currency) {
+        // plain gets first: computeIfAbsent may lock the bin even when the entry exists
+        ConcurrentMap<String, Balance> currencies = accounts.get(account);
+        if (currencies == null) {
+            currencies = accounts.computeIfAbsent(account, k -> new ConcurrentHashMap<>());
+        }
+        String key = currency == null ? NO_CURRENCY : currency;
+        Balance balance = currencies.get(key);
+        return balance != null ? balance : currencies.computeIfAbsent(key, k -> new Balance());
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, AMOUNT_SCALE);
+    }
+
+    private static final class Balance {
+        private final LongAdder credited = new LongAdder();
+        private final LongAdder debited = new LongAdder();
+        private final LongAdder count = new LongAdder();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.server.service;
+
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests doing database work at the size of the JDBC connection pool.
+ * <p>
+ * With virtual threads every request gets its own thread, so thousands of them can reach the pool
+ * at once and fail with connection timeouts. Callers beyond the cap wait here in arrival order
+ * instead, which costs a parked virtual thread rather than a pool slot, and are rejected with
+ * {@link ExecutionCode#SERVER_BUSY} once they have waited longer than the configured timeout.
+ */
+@Component
+@Slf4j
+public class ConnectionPermits {
+
+    private static final int DEFAULT_PERMITS = 10;
+
+    private final Semaphore semaphore;
+    private final int permits;
+    private final long waitTimeoutNanos;
+
+    public ConnectionPermits(DataSource dataSource,
+                             @Value("${transaction.connection-permits.max:0}") int maxPermits,
+                             @Value("${transaction.connection-permits.wait-timeout:30s}") Duration waitTimeout) {
+        this.permits = maxPermits > 0 ? maxPermits : poolSize(dataSource);
+        this.semaphore = new Semaphore(permits, true);
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        log.info("ConnectionPermits initialized with {} permits", permits);
+    }
+
+    public void acquire() {
+        try {
+            if (!semaphore.tryAcquire(waitTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                log.warn("No connection permit within {} ms, {} callers waiting",
+                        TimeUnit.NANOSECONDS.toMillis(waitTimeoutNanos), semaphore.getQueueLength());
+                throw new BusinessException(ExecutionCode.SERVER_BUSY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ExecutionCode.SERVER_BUSY);
+        }
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailablePermits() {
+        return semaphore.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.warn("Cannot read the connection pool size, using {} permits", DEFAULT_PERMITS, e);
+        }
+        return DEFAULT_PERMITS;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.server.service;
+
+import com.example.server.exception.BusinessException;
+import com.example.server.util.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves transactions in a final status from {@code transactions} to {@code transactions_archive}
+ * once they have not changed for {@code transaction.archive.min-age}, so the live table and its
+ * indexes only hold rows that can still change.
+ * <p>
+ * A background thread runs every {@code transaction.archive.interval} and moves rows in primary key
+ * chunks of {@code transaction.archive.chunk-size}, one database transaction per chunk, pausing
+ * {@code transaction.archive.chunk-pause} between chunks. Each chunk holds a {@link ConnectionPermits}
+ * permit, so the archiver never takes more than one pool connection away from requests. A row is
+ * copied and deleted in the same transaction, so a reader that looks at the live table first and
+ * the archive second always finds it, at worst twice while its chunk commits.
+ * <p>
+ * REJECTED is not archived: a rejected transaction can still be updated, which submits it again.
+ */
+@Component
+@Slf4j
+public class TransactionArchiver implements SmartLifecycle {
+
+    /**
+     * Statuses no operation moves a transaction out of; only these ever reach the archive.
+     */
+    public static final List<String> ARCHIVED_STATUSES = List.of(
+            Constants.TX_STATUS_APPROVED, Constants.TX_STATUS_CANCELLED, Constants.TX_STATUS_COMPLETED);
+
+    private static final String COLUMNS = "id, type, amount, transaction_date, transaction_description, debit_account, " +
+            "credit_account, status, last_updated, currency, submitted_by, submitted_at, approved_by, approved_at, version";
+    private static final String SELECT_CHUNK_SQL = "SELECT id FROM transactions WHERE status IN ('" +
+            String.join("', '", ARCHIVED_STATUSES) + "') AND last_updated < ? ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String COPY_SQL = "INSERT INTO transactions_archive (" + COLUMNS + ") SELECT " + COLUMNS +
+            " FROM transactions WHERE id = ANY(?)";
+    private static final String DELETE_SQL = "DELETE FROM transactions WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConnectionPermits connectionPermits;
+    private final Duration minAge;
+    private final Duration interval;
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+    private final Counter moved;
+
+    // false only while the archive is known to be empty, which lets readers skip it
+    private volatile boolean hasRows = true;
+    private volatile ScheduledExecutorService scheduler;
+
+    public TransactionArchiver(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               ConnectionPermits connectionPermits, MeterRegistry meterRegistry,
+                               @Value("${transaction.archive.min-age:30d}") Duration minAge,
+                               @Value("${transaction.archive.interval:10m}") Duration interval,
+                               @Value("${transaction.archive.chunk-size:1000}") int chunkSize,
+                               @Value("${transaction.archive.chunk-pause:100ms}") Duration chunkPause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.connectionPermits = connectionPermits;
+        this.minAge = minAge;
+        this.interval = interval;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMillis = chunkPause.toMillis();
+        this.moved = Counter.builder("transaction.archive.moved")
+                .description("Transactions moved to the archive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the archive may hold rows; {@code false} means it certainly holds none.
+     */
+    public boolean hasRows() {
+        return hasRows;
+    }
+
+    /**
+     * Whether the archive may hold rows matching the search. Only final statuses are archived, so
+     * a search for any other status never needs to read it.
+     */
+    public boolean mayContain(TransactionSearchPlanner.SearchPlan plan) {
+        if (!hasRows) {
+            return false;
+        }
+        for (TransactionSearchPlanner.SearchPredicate predicate : plan.predicates()) {
+            if ("status".equals(predicate.attribute()) && predicate.operator() == TransactionSearchPlanner.Operator.EQUAL
+                    && !ARCHIVED_STATUSES.contains(predicate.value())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves every archivable row last updated before {@code cutoff}, chunk by chunk, and returns
+     * the number of rows moved.
+     */
+    public long archiveOlderThan(LocalDateTime cutoff) {
+        long start = System.currentTimeMillis();
+        long total = 0;
+        int chunk;
+        do {
+            connectionPermits.acquire();
+            try {
+                chunk = moveChunk(cutoff);
+            } finally {
+                connectionPermits.release();
+            }
+            total += chunk;
+            if (chunk == chunkSize && chunkPauseMillis > 0) {
+                try {
+                    Thread.sleep(chunkPauseMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (chunk == chunkSize);
+        if (total > 0) {
+            log.info("Archived {} transactions last updated before {} in {} ms", total, cutoff,
+                    System.currentTimeMillis() - start);
+        }
+        return total;
+    }
+
+    @Override
+    public void start() {
+        hasRows = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM transactions_archive)", Boolean.class));
+        if (interval.isZero() || interval.isNegative()) {
+            log.info("Transaction archiving is disabled");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("transaction-archiver").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::archive, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = scheduler;
+        scheduler = null;
+        if (current != null) {
+            current.shutdownNow();
+            try {
+                current.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private void archive() {
+        try {
+            archiveOlderThan(LocalDateTime.now().minus(minAge));
+        } catch (BusinessException e) {
+            log.warn("No connection permit for archiving, retrying in {}", interval);
+        } catch (RuntimeException e) {
+            log.error("Archiving failed, retrying in {}", interval, e);
+        }
+    }
+
+    private int moveChunk(LocalDateTime cutoff) {
+        Integer rows = transactionTemplate.execute(status -> {
+            // the locks keep a concurrent delete from removing a row between the copy and the delete
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_CHUNK_SQL, Long.class, Timestamp.valueOf(cutoff), chunkSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            // announced before the commit, so a reader that no longer finds a row in the live table looks here
+            hasRows = true;
+            Long[] chunk = ids.toArray(Long[]::new);
+            jdbcTemplate.update(COPY_SQL, (Object) chunk);
+            jdbcTemplate.update(DELETE_SQL, (Object) chunk);
+            return ids.size();
+        });
+        if (rows != null && rows > 0) {
+            moved.increment(rows);
+            return rows;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.server.service;
+
+import com.example.server.model.vo.TransactionAuditVO;
+import com.example.server.util.SingleConsumerWorker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of status transitions, kept in the {@code transaction_audit} table.
+ * <p>
+ * Request threads only put events into a lock-free ring buffer, after their database transaction
+ * commits; a single writer thread drains it and inserts the events in JDBC batches. When the buffer
+ * is full a request thread waits at most {@code transaction.audit.max-wait} for room, then logs the
+ * event instead and counts it in {@code transaction.audit.dropped}. Events become queryable once
+ * the writer has flushed them, normally within a few milliseconds.
+ */
+@Component
+@Slf4j
+public class TransactionAuditLog implements SmartLifecycle {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final long FULL_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final String INSERT_SQL = "INSERT INTO transaction_audit (transaction_id, action, from_status, " +
+            "to_status, user_id, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SingleConsumerWorker<TransactionAuditVO> writer;
+    private final long maxWaitNanos;
+    private final Counter written;
+    private final Counter dropped;
+
+    public TransactionAuditLog(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                               @Value("${transaction.audit.buffer-size:65536}") int bufferSize,
+                               @Value("${transaction.audit.max-wait:10ms}") Duration maxWait) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = new SingleConsumerWorker<>("transaction-audit-writer", bufferSize, BATCH_SIZE, this::write);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.written = Counter.builder("transaction.audit.written").register(meterRegistry);
+        this.dropped = Counter.builder("transaction.audit.dropped").register(meterRegistry);
+        Gauge.builder("transaction.audit.pending", writer, SingleConsumerWorker::size).register(meterRegistry);
+    }
+
+    public void record(String action, Long transactionId, String fromStatus, String toStatus, String userId) {
+        record(List.of(new TransactionAuditVO(transactionId, action, fromStatus, toStatus, userId, LocalDateTime.now())));
+    }
+
+    /**
+     * Queues the events once the current transaction commits, or right away outside of one. Events
+     * of a rolled back transaction are discarded.
+     */
+    public void record(List<TransactionAuditVO> events) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(events);
+                }
+            });
+        } else {
+            enqueue(events);
+        }
+    }
+
+    public List<TransactionAuditVO> findByTransactionId(Long transactionId) {
+        return jdbcTemplate.query("SELECT transaction_id, action, from_status, to_status, user_id, occurred_at " +
+                        "FROM transaction_audit WHERE transaction_id = ? ORDER BY id",
+                (resultSet, row) -> new TransactionAuditVO(resultSet.getLong(1), resultSet.getString(2),
+                        resultSet.getString(3), resultSet.getString(4), resultSet.getString(5),
+                        resultSet.getTimestamp(6).toLocalDateTime()),
+                transactionId);
+    }
+
+    public int getPending() {
+        return writer.size();
+    }
+
+    @Override
+    public void start() {
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        writer.stop();
+        if (!writer.isEmpty()) {
+            log.warn("{} audit events were not written before shutdown", writer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer.isRunning();
+    }
+
+    private void enqueue(List<TransactionAuditVO> events) {
+        for (TransactionAuditVO event : events) {
+            if (!offer(event)) {
+                dropped.increment();
+                log.warn("Audit buffer full or writer stopped, event not stored: transaction={} action={} from={} to={} user={} at={}",
+                        event.getTransactionId(), event.getAction(), event.getFromStatus(), event.getToStatus(),
+                        event.getUserId(), event.getOccurredAt());
+            }
+        }
+    }
+
+    private boolean offer(TransactionAuditVO event) {
+        if (writer.offer(event)) {
+            return true;
+        }
+        writer.wake();
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (writer.isRunning() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(FULL_BACKOFF_NANOS);
+            if (writer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(List<TransactionAuditVO> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, event) -> {
+                statement.setLong(1, event.getTransactionId());
+                statement.setString(2, event.getAction());
+                statement.setString(3, event.getFromStatus());
+                statement.setString(4, event.getToStatus());
+                statement.setString(5, event.getUserId());
+                statement.setTimestamp(6, Timestamp.valueOf(event.getOccurredAt()));
+            });
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            dropped.increment(batch.size());
+            log.error("Failed to write {} audit events, first: transaction={} action={}", batch.size(),
+                    batch.get(0).getTransactionId(), batch.get(0).getAction(), e);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.server.service;
+
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
+import com.example.server.model.vo.TransactionChangeVO;
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+import com.example.server.util.MpscRingBuffer;
+import com.example.server.util.SingleConsumerWorker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pushes committed transaction changes to subscribers as server-sent events, so clients no longer
+ * have to poll the search to find out what changed.
+ * <p>
+ * Committing threads only put their changes into a lock-free ring buffer. A single dispatcher thread
+ * numbers them, keeps the last {@code transaction.change-feed.history} of them for replay and offers
+ * each one to the bounded queue of every subscriber whose filter it matches. Every subscriber has its
+ * own virtual thread that writes its queue to the connection, so a slow client only ever waits on
+ * itself. A subscriber whose queue overflows is disconnected; its client reconnects with the id of
+ * the last event it received and is replayed from the history.
+ * <p>
+ * The stream starts with a {@code subscribed} event carrying the sequence it continues from. When a
+ * client asks to resume from a sequence the history no longer holds, or from one of an earlier run of
+ * the server, it gets a {@code resync} event instead: changes up to that sequence may have been
+ * missed and should be read with a search. Sequence numbers start over when the server restarts.
+ */
+@Component
+@Slf4j
+public class TransactionChangeFeed implements SmartLifecycle {
+
+    public static final String EVENT_CHANGE = "change";
+    public static final String EVENT_SUBSCRIBED = "subscribed";
+    public static final String EVENT_RESYNC = "resync";
+
+    private static final int QUEUE_SIZE = 65_536;
+    private static final int BATCH_SIZE = 1_024;
+
+    private final SingleConsumerWorker<PendingChange> dispatcher =
+            new SingleConsumerWorker<>("transaction-change-feed", QUEUE_SIZE, BATCH_SIZE, batch -> batch.forEach(this::dispatch));
+    private final AtomicReferenceArray<TransactionChangeVO> history;
+    private final int historyMask;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final long heartbeatNanos;
+    private final long timeoutMillis;
+    private final Counter dropped;
+    private final Counter overflows;
+
+    // last sequence written to the history; only the dispatcher writes it
+    private volatile long published;
+
+    public TransactionChangeFeed(MeterRegistry meterRegistry,
+                                 @Value("${transaction.change-feed.history:65536}") int historySize,
+                                 @Value("${transaction.change-feed.subscriber-buffer:1024}") int subscriberBuffer,
+                                 @Value("${transaction.change-feed.max-subscribers:256}") int maxSubscribers,
+                                 @Value("${transaction.change-feed.heartbeat:15s}") Duration heartbeat,
+                                 @Value("${transaction.change-feed.timeout:30m}") Duration timeout) {
+        if (Integer.bitCount(historySize) != 1) {
+            throw new IllegalArgumentException("History size must be a power of two, was " + historySize);
+        }
+        this.history = new AtomicReferenceArray<>(historySize);
+        this.historyMask = historySize - 1;
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.timeoutMillis = timeout.toMillis();
+        this.dropped = Counter.builder("transaction.changes.dropped")
+                .description("Changes not published because the dispatch buffer was full or the feed stopped")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("transaction.changes.overflows")
+                .description("Subscribers disconnected for falling behind")
+                .register(meterRegistry);
+        Gauge.builder("transaction.changes.subscribers", subscribers, List::size).register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of the changes matching every non-empty filter. A status matches a change that
+     * moves a transaction into or out of it. With {@code after}, changes after that sequence that are
+     * still in the history are sent first.
+     */
+    public SseEmitter subscribe(String status, String submittedBy, Long after) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribe(emitter, status, submittedBy, after);
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, String status, String submittedBy, Long after) {
+        if (!dispatcher.isRunning() || subscribers.size() >= maxSubscribers) {
+            log.warn("Change feed subscription refused, {} subscribers", subscribers.size());
+            throw new BusinessException(ExecutionCode.SERVER_BUSY);
+        }
+        Subscriber subscriber = new Subscriber(emitter, normalize(status), normalize(submittedBy));
+        // registered before the history position is read, so every later change is either replayed or queued
+        subscribers.add(subscriber);
+        long current = published;
+        boolean unknown = after != null && (after < 0 || after > current);
+        long start = after == null || unknown ? current : after;
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.sender = Thread.ofVirtual().name("transaction-change-feed-subscriber")
+                .start(() -> subscriber.run(start, unknown));
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        if (Constants.TX_CONTEXT_CREATE.equals(event.context())) {
+            for (TransactionVO created : event.transactions()) {
+                enqueue(new PendingChange(event.context(), created.getId(), null, created.getStatus(),
+                        created.getSubmittedBy(), now));
+            }
+        } else {
+            // DELETE carries no status after the write, so its change ends in null
+            for (int i = 0; i < event.previous().size(); i++) {
+                TransactionVO before = event.previous().get(i);
+                TransactionVO after = event.transactions().get(i);
+                enqueue(new PendingChange(event.context(), after.getId(), before.getStatus(), after.getStatus(),
+                        before.getSubmittedBy(), now));
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        dispatcher.start();
+    }
+
+    @Override
+    public void stop() {
+        // stopped first, so no subscription is accepted after the others are closed
+        dispatcher.stop();
+        subscribers.forEach(Subscriber::close);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return dispatcher.isRunning();
+    }
+
+    private void enqueue(PendingChange change) {
+        if (!dispatcher.offer(change)) {
+            dropped.increment();
+            log.warn("Change feed buffer full or stopped, change not published: transaction={} action={}",
+                    change.transactionId(), change.action());
+        }
+    }
+
+    private void dispatch(PendingChange pendingChange) {
+        long sequence = published + 1;
+        TransactionChangeVO change = new TransactionChangeVO(sequence, pendingChange.action(),
+                pendingChange.transactionId(), pendingChange.fromStatus(), pendingChange.toStatus(),
+                pendingChange.submittedBy(), pendingChange.occurredAt());
+        history.set((int) (sequence & historyMask), change);
+        published = sequence;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(change);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private record PendingChange(String action, Long transactionId, String fromStatus, String toStatus,
+                                 String submittedBy, LocalDateTime occurredAt) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final String status;
+        private final String submittedBy;
+        private final MpscRingBuffer<TransactionChangeVO> queue = new MpscRingBuffer<>(subscriberBuffer);
+
+        private volatile boolean open = true;
+        private volatile boolean idle;
+        private volatile Thread sender;
+        // only the sender thread reads and writes it
+        private long lastSent;
+
+        private Subscriber(SseEmitter emitter, String status, String submittedBy) {
+            this.emitter = emitter;
+            this.status = status;
+            this.submittedBy = submittedBy;
+        }
+
+        // called by the dispatcher only; never waits for the client
+        void offer(TransactionChangeVO change) {
+            if (!open || !matches(change)) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                overflows.increment();
+                log.info("Change feed subscriber fell {} changes behind and is disconnected", queue.capacity());
+                close();
+                return;
+            }
+            if (idle) {
+                LockSupport.unpark(sender);
+            }
+        }
+
+        void close() {
+            open = false;
+            LockSupport.unpark(sender);
+        }
+
+        void run(long start, boolean unknown) {
+            try {
+                lastSent = start;
+                emitter.send(SseEmitter.event().id(String.valueOf(start))
+                        .name(unknown ? EVENT_RESYNC : EVENT_SUBSCRIBED).data(start));
+                replay();
+                stream();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Change feed subscriber disconnected: {}", e.getMessage());
+            } finally {
+                open = false;
+                subscribers.remove(this);
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException e) {
+                    log.debug("Change feed emitter already completed");
+                }
+            }
+        }
+
+        private void replay() throws IOException {
+            long to = published;
+            long oldest = Math.max(1, to - history.length() + 1);
+            if (lastSent + 1 < oldest) {
+                lastSent = oldest - 1;
+                emitter.send(SseEmitter.event().id(String.valueOf(lastSent)).name(EVENT_RESYNC).data(lastSent));
+            }
+            while (open && lastSent < to) {
+                long sequence = lastSent + 1;
+                TransactionChangeVO change = history.get((int) (sequence & historyMask));
+                if (change == null || change.getSequence() != sequence) {
+                    // overwritten while replaying; the reconnect starts with a resync
+                    open = false;
+                    return;
+                }
+                if (matches(change)) {
+                    send(change);
+                }
+                lastSent = sequence;
+            }
+        }
+
+        private void stream() throws IOException {
+            List<TransactionChangeVO> batch = new ArrayList<>();
+            long lastWrite = System.nanoTime();
+            while (open) {
+                if (queue.drainTo(batch, BATCH_SIZE) == 0) {
+                    idle = true;
+                    if (open && queue.isEmpty()) {
+                        LockSupport.parkNanos(this, heartbeatNanos);
+                    }
+                    idle = false;
+                    if (open && System.nanoTime() - lastWrite >= heartbeatNanos) {
+                        // keeps proxies from closing an idle stream and finds clients that are gone
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        lastWrite = System.nanoTime();
+                    }
+                    continue;
+                }
+                for (TransactionChangeVO change : batch) {
+                    // changes queued while the history was replayed were already sent
+                    if (change.getSequence() > lastSent) {
+                        send(change);
+                        lastSent = change.getSequence();
+                    }
+                }
+                batch.clear();
+                lastWrite = System.nanoTime();
+            }
+        }
+
+        private void send(TransactionChangeVO change) throws IOException {
+            emitter.send(SseEmitter.event().id(String.valueOf(change.getSequence())).name(EVENT_CHANGE).data(change));
+        }
+
+        private boolean matches(TransactionChangeVO change) {
+            return (status == null || status.equals(change.getFromStatus()) || status.equals(change.getToStatus()))
+                    && (submittedBy == null || submittedBy.equals(change.getSubmittedBy()));
+        }
+    }
+}
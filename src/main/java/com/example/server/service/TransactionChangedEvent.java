@@ -0,0 +1,50 @@
+package com.example.server.service;
+
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+
+import java.util.List;
+
+/**
+ * Published by {@link TransactionService} for every successful write. Listeners that keep derived
+ * state in memory consume it after the surrounding transaction has committed.
+ * <p>
+ * The transactions carry what the write knew: full rows for CREATE, the submitted fields for UPDATE,
+ * id and new status for APPROVE/REJECT/CANCEL, and only the id for DELETE. For every write but CREATE,
+ * {@code previous} holds the status, currency, type, date, amount, accounts and submitter each row had
+ * before the write, in the same order as {@code transactions}.
+ */
+public record TransactionChangedEvent(String context, List<TransactionVO> transactions, List<TransactionVO> previous) {
+
+    public TransactionChangedEvent(String context, List<TransactionVO> transactions) {
+        this(context, transactions, List.of());
+    }
+
+    /**
+     * Hands every row the write took out of a status to {@code delta} with sign -1, and every row it
+     * put into one with sign +1. A status transition keeps all other fields, so it is reported as the
+     * previous row leaving its old status and the same row entering the new one.
+     */
+    public void forEachDelta(Delta delta) {
+        switch (context) {
+            case Constants.TX_CONTEXT_CREATE -> transactions.forEach(t -> delta.apply(t, t.getStatus(), 1));
+            case Constants.TX_CONTEXT_DELETE -> previous.forEach(t -> delta.apply(t, t.getStatus(), -1));
+            case Constants.TX_CONTEXT_UPDATE -> {
+                previous.forEach(t -> delta.apply(t, t.getStatus(), -1));
+                transactions.forEach(t -> delta.apply(t, t.getStatus(), 1));
+            }
+            default -> {
+                for (int i = 0; i < previous.size(); i++) {
+                    TransactionVO before = previous.get(i);
+                    delta.apply(before, before.getStatus(), -1);
+                    delta.apply(before, transactions.get(i).getStatus(), 1);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Delta {
+        void apply(TransactionVO row, String status, int sign);
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.server.service;
+
+import com.example.server.util.Constants;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over {@code transaction_description}.
+ * <p>
+ * Every trigram of a description maps to a compressed bitmap of the ids containing it. A substring
+ * term is resolved by intersecting the bitmaps of its trigrams, which yields a superset of the rows
+ * whose description contains the term. The caller keeps the LIKE predicate, so the database still
+ * verifies every candidate and results stay exact.
+ * <p>
+ * Because a stale posting can only widen that superset, deletes and description changes do not
+ * remove postings; they are counted, and the index is rebuilt in the background once they make up
+ * a quarter of it. The index is rebuilt from the live and archive tables at startup. Archiving a row
+ * keeps its id and description, so moving rows between the tiers needs no index update.
+ */
+@Component
+@Slf4j
+public class TransactionDescriptionIndex implements SmartInitializingSingleton {
+
+    static final int GRAM = 3;
+
+    // past this many candidates the primary key lookups of an IN list cost about as much as a LIKE scan
+    static final int MAX_CANDIDATES = 1_000;
+
+    private static final int MIN_STALE_FOR_REBUILD = 10_000;
+    private static final int REBUILD_CHUNK_SIZE = 50_000;
+    // live table first: a row archived during the rebuild is then read at least once
+    private static final List<String> TABLES = List.of("transactions", "transactions_archive");
+
+    private final JdbcTemplate jdbcTemplate;
+    // background rebuilds; runs on virtual threads when spring.threads.virtual.enabled is set
+    private final Executor executor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private Map<Long, RoaringBitmap> postings = new HashMap<>();
+    private long indexedRows;
+    private long staleRows;
+    private boolean ready;
+    // descriptions written while a rebuild is reading the table, replayed into the new index
+    private Map<Long, String> pendingDuringRebuild;
+
+    public TransactionDescriptionIndex(JdbcTemplate jdbcTemplate,
+                                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = executor;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Candidate ids for a substring term, in ascending order, or {@code null} when the index cannot
+     * narrow the search: the term is shorter than a trigram, contains LIKE wildcards, or matches
+     * more than {@link #MAX_CANDIDATES} rows.
+     */
+    public long[] candidates(String term) {
+        if (term == null || term.length() < GRAM || term.indexOf('%') >= 0 || term.indexOf('_') >= 0
+                || term.indexOf('\\') >= 0) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            List<RoaringBitmap> lists = new ArrayList<>();
+            for (long trigram : trigrams(term)) {
+                RoaringBitmap list = postings.get(trigram);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+            // a very common rarest trigram means a large result; skip the intersections
+            if (lists.get(0).getLongCardinality() > MAX_CANDIDATES * 8L) {
+                return null;
+            }
+
+            RoaringBitmap result = lists.get(0).clone();
+            for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+                result.and(lists.get(i));
+            }
+            if (result.getLongCardinality() > MAX_CANDIDATES) {
+                return null;
+            }
+            return result.stream().asLongStream().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        switch (event.context()) {
+            case Constants.TX_CONTEXT_CREATE ->
+                    event.transactions().forEach(t -> add(t.getId(), t.getTransactionDescription(), false));
+            case Constants.TX_CONTEXT_UPDATE ->
+                    event.transactions().forEach(t -> add(t.getId(), t.getTransactionDescription(), true));
+            case Constants.TX_CONTEXT_DELETE -> markStale(event.transactions().size());
+            default -> {
+                // status transitions leave descriptions unchanged
+            }
+        }
+    }
+
+    /**
+     * Re-reads every description from both tables and swaps the new index in. Writes that commit
+     * while the table is being read are replayed into the new index before the swap.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = new HashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long start = System.currentTimeMillis();
+            Map<Long, RoaringBitmap> rebuilt = new HashMap<>();
+            // read in primary key chunks so the database never materializes the whole table
+            long[] rows = {0};
+            for (String table : TABLES) {
+                long[] lastId = {Long.MIN_VALUE};
+                int chunkRows;
+                do {
+                    long before = rows[0];
+                    jdbcTemplate.query("SELECT id, transaction_description FROM " + table + " WHERE id > ? ORDER BY id LIMIT ?",
+                            resultSet -> {
+                                lastId[0] = resultSet.getLong(1);
+                                index(rebuilt, lastId[0], resultSet.getString(2));
+                                rows[0]++;
+                            }, lastId[0], REBUILD_CHUNK_SIZE);
+                    chunkRows = (int) (rows[0] - before);
+                } while (chunkRows == REBUILD_CHUNK_SIZE);
+            }
+            rebuilt.values().forEach(RoaringBitmap::runOptimize);
+
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild.forEach((id, description) -> index(rebuilt, id, description));
+                postings = rebuilt;
+                indexedRows = rows[0] + pendingDuringRebuild.size();
+                staleRows = 0;
+                ready = true;
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Description index rebuilt with {} rows and {} trigrams ({} KB) in {} ms",
+                    rows[0], rebuilt.size(), getSizeInBytes() / 1024, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Failed to rebuild description index, description search falls back to LIKE", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public long getIndexedRows() {
+        lock.readLock().lock();
+        try {
+            return indexedRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            // bitmap payloads plus a rough per-entry cost for the hash map and its boxed keys
+            long size = 0;
+            for (RoaringBitmap list : postings.values()) {
+                size += list.getLongSizeInBytes() + 64;
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long id, String description, boolean replaces) {
+        if (id == null || description == null) {
+            return;
+        }
+        boolean scheduleRebuild;
+        lock.writeLock().lock();
+        try {
+            try {
+                index(postings, id, description);
+            } catch (IllegalStateException e) {
+                ready = false;
+                log.warn("{}, description search falls back to LIKE", e.getMessage());
+                return;
+            }
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.put(id, description);
+            }
+            if (replaces) {
+                staleRows++;
+            } else {
+                indexedRows++;
+            }
+            scheduleRebuild = needsRebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (scheduleRebuild) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    private void markStale(int rows) {
+        boolean scheduleRebuild;
+        lock.writeLock().lock();
+        try {
+            staleRows += rows;
+            scheduleRebuild = needsRebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (scheduleRebuild) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    private boolean needsRebuild() {
+        return ready && !rebuilding.get() && staleRows >= MIN_STALE_FOR_REBUILD && staleRows * 4 >= indexedRows;
+    }
+
+    private void index(Map<Long, RoaringBitmap> target, long id, String description) {
+        if (description == null) {
+            return;
+        }
+        if (id > Integer.MAX_VALUE) {
+            // ids are stored as 32-bit bitmap entries
+            throw new IllegalStateException("Transaction id " + id + " does not fit the description index");
+        }
+        // adding an id twice is a no-op, so repeated trigrams need no de-duplication here
+        for (int i = 0; i + GRAM <= description.length(); i++) {
+            target.computeIfAbsent(trigram(description, i), k -> new RoaringBitmap()).add((int) id);
+        }
+    }
+
+    static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            trigrams.add(trigram(text, i));
+        }
+        return trigrams;
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.server.service;
+
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
+import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.util.Constants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams search results straight from a forward-only JDBC cursor to the response as NDJSON or CSV.
+ * <p>
+ * Rows never become JPA entities, and each row is written as soon as it is read, so heap usage does
+ * not depend on the number of exported rows.
+ * <p>
+ * The live table is exported first and the archive second, each in primary key order. The archive
+ * is skipped when the filters rule it out. A row archived while the export runs may appear twice.
+ */
+@Service
+@Slf4j
+public class TransactionExportService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // output field name -> column, in TransactionVO order
+    private static final String[][] FIELDS = {
+            {"id", "id"},
+            {"type", "type"},
+            {"amount", "amount"},
+            {"transactionDate", "transaction_date"},
+            {"transactionDescription", "transaction_description"},
+            {"debitAccount", "debit_account"},
+            {"creditAccount", "credit_account"},
+            {"currency", "currency"},
+            {"status", "status"},
+            {"lastUpdated", "last_updated"},
+            {"submittedBy", "submitted_by"},
+            {"submittedAt", "submitted_at"},
+            {"approvedBy", "approved_by"},
+            {"approvedAt", "approved_at"},
+            {"version", "version"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory;
+    private final ConnectionPermits connectionPermits;
+    private final TransactionArchiver archiver;
+    private final TransactionSearchPlanner searchPlanner = new TransactionSearchPlanner();
+
+    public TransactionExportService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ConnectionPermits connectionPermits,
+                                    TransactionArchiver archiver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonFactory = objectMapper.getFactory();
+        this.connectionPermits = connectionPermits;
+        this.archiver = archiver;
+    }
+
+    public long exportTransactions(TransactionSearchVO searchVO, String format, OutputStream out) {
+        if (!Constants.EXPORT_FORMAT_NDJSON.equals(format) && !Constants.EXPORT_FORMAT_CSV.equals(format)) {
+            log.error("Unsupported export format: {}", format);
+            throw new BusinessException(ExecutionCode.INVALID_PARAMETER);
+        }
+
+        TransactionSearchPlanner.SearchPlan plan = searchPlanner.plan(searchVO);
+        List<Object> args = new ArrayList<>();
+        List<String> sqls = new ArrayList<>(2);
+        sqls.add(buildSql(plan, "transactions", args));
+        if (archiver.mayContain(plan)) {
+            sqls.add(buildSql(plan, "transactions_archive", new ArrayList<>()));
+        }
+        // runs on the async executor after the request permit is returned, so it holds its own
+        connectionPermits.acquire();
+        long rows;
+        try {
+            rows = exportRows(sqls, args, format, out);
+        } finally {
+            connectionPermits.release();
+        }
+        log.info("Exported {} transactions as {}", rows, format);
+        return rows;
+    }
+
+    private long exportRows(List<String> sqls, List<Object> args, String format, OutputStream out) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            // H2 would otherwise materialize the whole result before returning the first row
+            try (Statement settings = connection.createStatement()) {
+                settings.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+            try {
+                return Constants.EXPORT_FORMAT_CSV.equals(format)
+                        ? writeCsv(connection, sqls, args, out) : writeNdjson(connection, sqls, args, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                try (Statement settings = connection.createStatement()) {
+                    settings.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                }
+            }
+        });
+    }
+
+    private PreparedStatement prepare(Connection connection, String sql, List<Object> args) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(FETCH_SIZE);
+        for (int i = 0; i < args.size(); i++) {
+            statement.setObject(i + 1, args.get(i));
+        }
+        return statement;
+    }
+
+    private String buildSql(TransactionSearchPlanner.SearchPlan plan, String table, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < FIELDS.length; i++) {
+            sql.append(i == 0 ? "" : ", ").append(FIELDS[i][1]);
+        }
+        sql.append(" FROM ").append(table).append(" WHERE 1 = 1");
+        TransactionSearchPlanner.SearchPredicate either = plan.predicates().stream()
+                .filter(p -> p.operator() == TransactionSearchPlanner.Operator.EITHER)
+                .findFirst()
+                .orElse(null);
+        if (either != null) {
+            // one index lookup per side, each with the other filters, as the search runs it
+            List<String> branches = new ArrayList<>();
+            for (String attribute : TransactionSearchPlanner.EITHER_ATTRIBUTES.get(either.attribute())) {
+                StringBuilder branch = new StringBuilder("SELECT id FROM ").append(table).append(" WHERE ")
+                        .append(TransactionSearchPlanner.column(attribute)).append(" = ?");
+                args.add(either.value());
+                for (TransactionSearchPlanner.SearchPredicate predicate : plan.predicates()) {
+                    if (predicate != either && predicate.operator() != TransactionSearchPlanner.Operator.LIKE) {
+                        appendPredicate(branch, predicate, args);
+                    }
+                }
+                branches.add(branch.toString());
+            }
+            sql.append(" AND id IN (").append(String.join(" UNION ", branches)).append(")");
+        }
+        for (TransactionSearchPlanner.SearchPredicate predicate : plan.predicates()) {
+            if (either == null || predicate.operator() == TransactionSearchPlanner.Operator.LIKE) {
+                appendPredicate(sql, predicate, args);
+            }
+        }
+        // primary key order streams without a sort step
+        return sql.append(" ORDER BY id").toString();
+    }
+
+    private static void appendPredicate(StringBuilder sql, TransactionSearchPlanner.SearchPredicate predicate,
+                                        List<Object> args) {
+        String column = TransactionSearchPlanner.column(predicate.attribute());
+        switch (predicate.operator()) {
+            case EQUAL -> sql.append(" AND ").append(column).append(" = ?");
+            case GREATER_OR_EQUAL -> sql.append(" AND ").append(column).append(" >= ?");
+            case LESS_OR_EQUAL -> sql.append(" AND ").append(column).append(" <= ?");
+            case LIKE -> sql.append(" AND ").append(column).append(" LIKE ?");
+            case EITHER -> throw new IllegalArgumentException("EITHER predicates are rendered as a union");
+        }
+        args.add(predicate.operator() == TransactionSearchPlanner.Operator.LIKE
+                ? "%" + predicate.value() + "%" : predicate.value());
+    }
+
+    private long writeNdjson(Connection connection, List<String> sqls, List<Object> args, OutputStream out)
+            throws SQLException, IOException {
+        long rows = 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(new BufferedOutputStream(out, BUFFER_SIZE))) {
+            generator.setRootValueSeparator(null);
+            for (String sql : sqls) {
+                try (PreparedStatement statement = prepare(connection, sql, args);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    rows += writeNdjson(generator, resultSet);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long writeNdjson(JsonGenerator generator, ResultSet resultSet) throws SQLException, IOException {
+        long rows = 0;
+        while (resultSet.next()) {
+            generator.writeStartObject();
+            for (int i = 0; i < FIELDS.length; i++) {
+                Object value = readValue(resultSet, i + 1);
+                generator.writeFieldName(FIELDS[i][0]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private long writeCsv(Connection connection, List<String> sqls, List<Object> args, OutputStream out)
+            throws SQLException, IOException {
+        long rows = 0;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            for (int i = 0; i < FIELDS.length; i++) {
+                writer.write(i == 0 ? "" : ",");
+                writer.write(FIELDS[i][0]);
+            }
+            writer.write('\n');
+            for (String sql : sqls) {
+                try (PreparedStatement statement = prepare(connection, sql, args);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    rows += writeCsv(writer, resultSet);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private long writeCsv(Writer writer, ResultSet resultSet) throws SQLException, IOException {
+        long rows = 0;
+        while (resultSet.next()) {
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = readValue(resultSet, i + 1);
+                if (value != null) {
+                    writeCsvValue(writer, value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+                }
+            }
+            writer.write('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private Object readValue(ResultSet resultSet, int index) throws SQLException {
+        return switch (FIELDS[index - 1][1]) {
+            case "id", "version" -> resultSet.getObject(index, Long.class);
+            case "amount" -> resultSet.getBigDecimal(index);
+            case "transaction_date", "last_updated", "submitted_at", "approved_at" -> resultSet.getObject(index, LocalDateTime.class);
+            default -> resultSet.getString(index);
+        };
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.server.service;
+
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
+import com.example.server.model.data.Transaction;
+import com.example.server.repository.TransactionRepository;
+import com.example.server.util.SingleConsumerWorker;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces concurrent single-row inserts into one database transaction per group.
+ * <p>
+ * Callers hand over a validated entity and wait for it to be saved. A single flusher thread takes
+ * the first waiting entity, keeps collecting until it has {@code transaction.group-commit.max-batch}
+ * of them or {@code transaction.group-commit.max-wait} has passed, and inserts the group as JDBC
+ * batches in one transaction, so the commit is paid once per group instead of once per row. When
+ * the group fails, each of its entities is inserted again in its own transaction, so an invalid row
+ * only fails its own caller.
+ * <p>
+ * Waiting callers hold no connection; only the flusher does, so callers can never starve it of the
+ * pool. A caller that finds the queue full inserts its entity itself, and so does one whose entity the
+ * flusher has not taken within {@code transaction.group-commit.handoff-timeout}: the caller and the
+ * flusher then both try to claim the entity, and only the one that wins inserts it.
+ */
+@Component
+@Slf4j
+public class TransactionGroupCommit implements SmartLifecycle {
+
+    private static final int QUEUE_SIZE = 4_096;
+    private static final long COLLECT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final Duration handoffTimeout;
+    private final SingleConsumerWorker<PendingInsert> flusher;
+    private final DistributionSummary groupSize;
+
+    private volatile boolean running;
+
+    public TransactionGroupCommit(TransactionRepository transactionRepository, TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${transaction.group-commit.enabled:false}") boolean enabled,
+                                  @Value("${transaction.group-commit.max-batch:64}") int maxBatch,
+                                  @Value("${transaction.group-commit.max-wait:200us}") Duration maxWait,
+                                  @Value("${transaction.group-commit.handoff-timeout:1s}") Duration handoffTimeout) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.handoffTimeout = handoffTimeout;
+        this.flusher = new SingleConsumerWorker<>("transaction-group-commit", QUEUE_SIZE, maxBatch, this::flush);
+        this.groupSize = DistributionSummary.builder("transaction.group-commit.size")
+                .description("Rows inserted per group commit")
+                .serviceLevelObjectives(1, 2, 8, 32, 64, 256)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled && flusher.isRunning();
+    }
+
+    /**
+     * Inserts the entity with the next group and returns it with its generated id and version.
+     * Must not be called inside a transaction: the insert commits in the flusher's transaction.
+     */
+    public Transaction insert(Transaction transaction) {
+        PendingInsert pending = new PendingInsert(transaction);
+        if (!flusher.offer(pending)) {
+            return transactionRepository.save(transaction);
+        }
+        try {
+            return pending.result().get(handoffTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            if (pending.claim()) {
+                log.warn("Group commit did not take an insert within {}, inserting it alone", handoffTimeout);
+                return transactionRepository.save(transaction);
+            }
+            return await(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (pending.claim()) {
+                // nothing was written; the interrupted caller is told to retry
+                throw new BusinessException(ExecutionCode.SERVER_BUSY);
+            }
+            return await(pending);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (enabled) {
+            flusher.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flusher.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void flush(List<PendingInsert> group) {
+        // keep collecting until the group is full or its first insert has waited long enough
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (group.size() < maxBatch && flusher.isRunning() && System.nanoTime() < deadline) {
+            if (flusher.drainTo(group, maxBatch - group.size()) == 0) {
+                LockSupport.parkNanos(COLLECT_PARK_NANOS);
+            }
+        }
+        // callers that gave up waiting insert their entity themselves
+        group.removeIf(pending -> !pending.claim());
+        if (group.isEmpty()) {
+            return;
+        }
+        try {
+            insertGroup(group);
+        } finally {
+            // a claimed caller waits without a timeout, so it must never be left waiting
+            IllegalStateException unfinished = null;
+            for (PendingInsert pending : group) {
+                if (!pending.result().isDone()) {
+                    if (unfinished == null) {
+                        unfinished = new IllegalStateException("Group commit ended without inserting the entity");
+                    }
+                    pending.result().completeExceptionally(unfinished);
+                }
+            }
+        }
+    }
+
+    private void insertGroup(List<PendingInsert> group) {
+        List<Transaction> entities = new ArrayList<>(group.size());
+        group.forEach(pending -> entities.add(pending.transaction()));
+        List<Transaction> saved;
+        try {
+            saved = transactionTemplate.execute(status -> transactionRepository.saveAll(entities));
+        } catch (RuntimeException e) {
+            log.warn("Group insert of {} transactions failed, inserting them one by one", group.size(), e);
+            group.forEach(this::insertAlone);
+            return;
+        }
+        groupSize.record(group.size());
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).result().complete(saved.get(i));
+        }
+    }
+
+    private void insertAlone(PendingInsert pending) {
+        // the failed group may have assigned an id and version; reset them so the entity is persisted as new
+        Transaction transaction = pending.transaction();
+        transaction.setId(null);
+        transaction.setVersion(null);
+        try {
+            pending.result().complete(transactionRepository.save(transaction));
+            groupSize.record(1);
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private static Transaction await(PendingInsert pending) {
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+
+    private record PendingInsert(Transaction transaction, CompletableFuture<Transaction> result, AtomicBoolean claimed) {
+
+        private PendingInsert(Transaction transaction) {
+            this(transaction, new CompletableFuture<>(), new AtomicBoolean());
+        }
+
+        // true for the first of the flusher and the caller to ask; only that one inserts the entity
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
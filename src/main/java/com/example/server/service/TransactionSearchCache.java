@@ -0,0 +1,137 @@
+package com.example.server.service;
+
+import com.example.server.model.vo.CursorPageVO;
+import com.example.server.model.vo.TransactionSearchVO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Results of recent searches, keyed by the normalized search and a write generation.
+ * <p>
+ * Every committed write bumps a global generation and the generations of the statuses it moved rows
+ * out of and into. A search filtered on a status reads that status's generation, any other search
+ * the global one, and the generation is part of the cache key: after a write the affected searches
+ * simply miss, and their old entries age out under the size bound. Nothing is scanned or removed on
+ * write. The generation is read before the database is, so a result computed while a write commits
+ * can only be stored under a generation that is already outdated.
+ * <p>
+ * Hits, misses and evictions are exported as {@code cache.gets} and friends with {@code cache="transactionSearch"}.
+ */
+@Component
+public class TransactionSearchCache {
+
+    private static final String ALL_STATUSES = "";
+
+    private final Cache<SearchKey, Object> cache;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public TransactionSearchCache(MeterRegistry meterRegistry,
+                                  @Value("${transaction.search-cache.maximum-rows:100000}") long maximumRows) {
+        if (maximumRows > 0) {
+            // weighed by result rows, so the bound holds however large the requested pages are
+            cache = Caffeine.newBuilder()
+                    .maximumWeight(maximumRows)
+                    .weigher((SearchKey key, Object result) -> weight(result))
+                    .recordStats()
+                    .build();
+            // same tag keys as the CacheManager caches, which Prometheus requires of one metric name
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "transactionSearch",
+                    "name", "transactionSearch", "cache.manager", "transactionSearchCache");
+        } else {
+            cache = null;
+        }
+    }
+
+    /**
+     * Returns the cached result of {@code search}, or runs {@code loader} and caches what it returns.
+     * Concurrent misses of the same search each run the loader.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(TransactionSearchVO search, Supplier<T> loader) {
+        if (cache == null) {
+            return loader.get();
+        }
+        SearchKey key = SearchKey.of(search, generation(normalize(search.getStatus())).get());
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        T result = loader.get();
+        cache.put(key, result);
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        event.transactions().forEach(t -> bump(t.getStatus()));
+        event.previous().forEach(t -> bump(t.getStatus()));
+        generation(ALL_STATUSES).incrementAndGet();
+    }
+
+    private void bump(String status) {
+        if (status != null && !status.isEmpty()) {
+            generation(status).incrementAndGet();
+        }
+    }
+
+    private AtomicLong generation(String status) {
+        return generations.computeIfAbsent(status == null ? ALL_STATUSES : status, k -> new AtomicLong());
+    }
+
+    private static int weight(Object result) {
+        if (result instanceof Page<?> page) {
+            return page.getNumberOfElements() + 1;
+        }
+        if (result instanceof CursorPageVO<?> page) {
+            return page.getContent().size() + 1;
+        }
+        return 1;
+    }
+
+    // the planner ignores empty filters, so they share an entry with absent ones
+    private static String normalize(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    // 10000 and 10000.00 match the same rows
+    private static BigDecimal normalize(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+
+    private record SearchKey(Long id, String type, LocalDateTime startDate, LocalDateTime endDate,
+                             String transactionDescription, String status, String submittedBy, String approvedBy,
+                             String debitAccount, String creditAccount, String account, String currency,
+                             BigDecimal minAmount, BigDecimal maxAmount, int page, int pageSize, String sortBy, String sortDirection, String pagination,
+                             String cursor, List<String> fields, long generation) {
+
+        static SearchKey of(TransactionSearchVO search, long generation) {
+            return new SearchKey(search.getId(), normalize(search.getType()), search.getStartDate(), search.getEndDate(),
+                    normalize(search.getTransactionDescription()), normalize(search.getStatus()),
+                    normalize(search.getSubmittedBy()), normalize(search.getApprovedBy()),
+                    normalize(search.getDebitAccount()), normalize(search.getCreditAccount()),
+                    normalize(search.getAccount()), normalize(search.getCurrency()),
+                    normalize(search.getMinAmount()), normalize(search.getMaxAmount()),
+                    search.getPage(), search.getPageSize(), search.getSortBy(), search.getSortDirection(),
+                    search.getPagination() == null ? null : search.getPagination().toLowerCase(Locale.ROOT),
+                    normalize(search.getCursor()), search.getFields() == null ? null : new ArrayList<>(search.getFields()),
+                    generation);
+        }
+    }
+}
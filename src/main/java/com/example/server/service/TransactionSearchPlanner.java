@@ -0,0 +1,248 @@
+package com.example.server.service;
+
+import com.example.server.model.data.Transaction;
+import com.example.server.model.vo.TransactionSearchVO;
+import jakarta.persistence.Column;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Turns a {@link TransactionSearchVO} into an ordered list of predicates.
+ * <p>
+ * The managed index set is read from {@code @Table(indexes = ...)} on {@link Transaction}. For every
+ * search the planner picks the index whose leading columns are covered best by the filters (equality
+ * columns first, at most one trailing range column) and emits the predicates of that index in index
+ * column order, followed by the remaining predicates from most to least selective. The description
+ * LIKE filter can never be served by a B-tree index and always goes last.
+ * <p>
+ * A filter that matches either of two columns, like {@code account} on the debit or credit side, is
+ * an {@link Operator#EITHER} predicate. It is planned first and runs as a union of one index lookup
+ * per column, each carrying the other equality and range filters, instead of an OR that no single
+ * index can serve; the plan then names the index of every branch.
+ */
+public class TransactionSearchPlanner {
+
+    public static final String PRIMARY_KEY = "PRIMARY_KEY";
+
+    public enum Operator {
+        EQUAL, GREATER_OR_EQUAL, LESS_OR_EQUAL, LIKE, EITHER
+    }
+
+    public record SearchPredicate(String attribute, Operator operator, Object value) {
+    }
+
+    public record SearchPlan(String indexName, List<SearchPredicate> predicates) {
+    }
+
+    public record ManagedIndex(String name, List<String> attributes) {
+    }
+
+    /**
+     * Pseudo-attributes of {@link Operator#EITHER} predicates and the attributes each one matches.
+     */
+    public static final Map<String, List<String>> EITHER_ATTRIBUTES = Map.of(
+            "account", List.of("debitAccount", "creditAccount")
+    );
+
+    // lower rank = fewer matching rows expected for a single value
+    private static final Map<String, Integer> SELECTIVITY_RANK = Map.of(
+            "id", 0,
+            "submittedBy", 1,
+            "approvedBy", 1,
+            "debitAccount", 1,
+            "creditAccount", 1,
+            "transactionDate", 2,
+            "type", 3,
+            "status", 3,
+            "transactionDescription", 9
+    );
+
+    private static final Map<String, String> COLUMN_BY_ATTRIBUTE = readColumnNames();
+
+    private final List<ManagedIndex> indexes;
+
+    public TransactionSearchPlanner() {
+        this.indexes = readManagedIndexes();
+    }
+
+    /**
+     * Column name of a {@link Transaction} attribute, for callers that render a plan as plain SQL.
+     */
+    public static String column(String attribute) {
+        return Objects.requireNonNull(COLUMN_BY_ATTRIBUTE.get(attribute), "Unknown attribute " + attribute);
+    }
+
+    public List<ManagedIndex> getIndexes() {
+        return indexes;
+    }
+
+    public SearchPlan plan(TransactionSearchVO vo) {
+        List<SearchPredicate> predicates = collectPredicates(vo);
+        if (predicates.isEmpty()) {
+            return new SearchPlan(null, predicates);
+        }
+        SearchPredicate either = predicates.stream()
+                .filter(p -> p.operator() == Operator.EITHER)
+                .findFirst()
+                .orElse(null);
+        if (either != null) {
+            return planUnion(either, predicates);
+        }
+
+        ManagedIndex best = bestIndex(predicates);
+        List<SearchPredicate> ordered = new ArrayList<>(predicates.size());
+        List<SearchPredicate> remaining = new ArrayList<>(predicates);
+        if (best != null) {
+            for (String attribute : best.attributes()) {
+                List<SearchPredicate> onColumn = remaining.stream()
+                        .filter(p -> p.attribute().equals(attribute))
+                        .toList();
+                if (onColumn.isEmpty()) {
+                    break;
+                }
+                ordered.addAll(onColumn);
+                remaining.removeAll(onColumn);
+                if (onColumn.stream().anyMatch(p -> p.operator() != Operator.EQUAL)) {
+                    break;
+                }
+            }
+        }
+        remaining.sort(Comparator.comparingInt(p -> rank(p.attribute())));
+        ordered.addAll(remaining);
+
+        return new SearchPlan(best == null ? null : best.name(), ordered);
+    }
+
+    private SearchPlan planUnion(SearchPredicate either, List<SearchPredicate> predicates) {
+        List<SearchPredicate> others = new ArrayList<>(predicates);
+        others.remove(either);
+        List<String> branchIndexes = new ArrayList<>();
+        for (String attribute : EITHER_ATTRIBUTES.get(either.attribute())) {
+            List<SearchPredicate> branch = new ArrayList<>(others);
+            branch.add(new SearchPredicate(attribute, Operator.EQUAL, either.value()));
+            ManagedIndex best = bestIndex(branch);
+            branchIndexes.add(best == null ? null : best.name());
+        }
+        List<SearchPredicate> ordered = new ArrayList<>(predicates.size());
+        ordered.add(either);
+        others.sort(Comparator.comparingInt(p -> rank(p.attribute())));
+        ordered.addAll(others);
+        return new SearchPlan(String.join(" UNION ", branchIndexes), ordered);
+    }
+
+    private ManagedIndex bestIndex(List<SearchPredicate> predicates) {
+        ManagedIndex best = null;
+        int bestScore = 0;
+        for (ManagedIndex index : indexes) {
+            int score = score(index, predicates);
+            if (score > bestScore) {
+                best = index;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    private int score(ManagedIndex index, List<SearchPredicate> predicates) {
+        int score = 0;
+        for (String attribute : index.attributes()) {
+            boolean equality = false;
+            boolean range = false;
+            for (SearchPredicate predicate : predicates) {
+                if (predicate.attribute().equals(attribute)) {
+                    equality |= predicate.operator() == Operator.EQUAL;
+                    range |= predicate.operator() == Operator.GREATER_OR_EQUAL
+                            || predicate.operator() == Operator.LESS_OR_EQUAL;
+                }
+            }
+            if (!equality && !range) {
+                break;
+            }
+            score += 10 - rank(attribute);
+            if (!equality) {
+                break;
+            }
+        }
+        return score;
+    }
+
+    private List<SearchPredicate> collectPredicates(TransactionSearchVO vo) {
+        List<SearchPredicate> predicates = new ArrayList<>();
+        if (vo.getId() != null) {
+            predicates.add(new SearchPredicate("id", Operator.EQUAL, vo.getId()));
+        }
+        if (vo.getType() != null && !vo.getType().isEmpty()) {
+            predicates.add(new SearchPredicate("type", Operator.EQUAL, vo.getType()));
+        }
+        if (vo.getStatus() != null && !vo.getStatus().isEmpty()) {
+            predicates.add(new SearchPredicate("status", Operator.EQUAL, vo.getStatus()));
+        }
+        if (vo.getStartDate() != null) {
+            predicates.add(new SearchPredicate("transactionDate", Operator.GREATER_OR_EQUAL, vo.getStartDate()));
+        }
+        if (vo.getEndDate() != null) {
+            predicates.add(new SearchPredicate("transactionDate", Operator.LESS_OR_EQUAL, vo.getEndDate()));
+        }
+        if (vo.getTransactionDescription() != null && !vo.getTransactionDescription().isEmpty()) {
+            predicates.add(new SearchPredicate("transactionDescription", Operator.LIKE, vo.getTransactionDescription()));
+        }
+        if (vo.getSubmittedBy() != null && !vo.getSubmittedBy().isEmpty()) {
+            predicates.add(new SearchPredicate("submittedBy", Operator.EQUAL, vo.getSubmittedBy()));
+        }
+        if (vo.getApprovedBy() != null && !vo.getApprovedBy().isEmpty()) {
+            predicates.add(new SearchPredicate("approvedBy", Operator.EQUAL, vo.getApprovedBy()));
+        }
+        if (vo.getDebitAccount() != null && !vo.getDebitAccount().isEmpty()) {
+            predicates.add(new SearchPredicate("debitAccount", Operator.EQUAL, vo.getDebitAccount()));
+        }
+        if (vo.getCreditAccount() != null && !vo.getCreditAccount().isEmpty()) {
+            predicates.add(new SearchPredicate("creditAccount", Operator.EQUAL, vo.getCreditAccount()));
+        }
+        if (vo.getAccount() != null && !vo.getAccount().isEmpty()) {
+            predicates.add(new SearchPredicate("account", Operator.EITHER, vo.getAccount()));
+        }
+        if (vo.getCurrency() != null && !vo.getCurrency().isEmpty()) {
+            predicates.add(new SearchPredicate("currency", Operator.EQUAL, vo.getCurrency()));
+        }
+        if (vo.getMinAmount() != null) {
+            predicates.add(new SearchPredicate("amount", Operator.GREATER_OR_EQUAL, vo.getMinAmount()));
+        }
+        if (vo.getMaxAmount() != null) {
+            predicates.add(new SearchPredicate("amount", Operator.LESS_OR_EQUAL, vo.getMaxAmount()));
+        }
+        return predicates;
+    }
+
+    private static int rank(String attribute) {
+        return SELECTIVITY_RANK.getOrDefault(attribute, 5);
+    }
+
+    private static Map<String, String> readColumnNames() {
+        Map<String, String> columnByAttribute = new LinkedHashMap<>();
+        for (Field field : Transaction.class.getDeclaredFields()) {
+            Column column = field.getAnnotation(Column.class);
+            String columnName = column == null || column.name().isEmpty() ? field.getName() : column.name();
+            columnByAttribute.put(field.getName(), columnName.toLowerCase(Locale.ROOT));
+        }
+        return Collections.unmodifiableMap(columnByAttribute);
+    }
+
+    private static List<ManagedIndex> readManagedIndexes() {
+        Map<String, String> attributeByColumn = new HashMap<>();
+        COLUMN_BY_ATTRIBUTE.forEach((attribute, column) -> attributeByColumn.put(column, attribute));
+
+        List<ManagedIndex> indexes = new ArrayList<>();
+        indexes.add(new ManagedIndex(PRIMARY_KEY, List.of("id")));
+        for (Index index : Transaction.class.getAnnotation(Table.class).indexes()) {
+            List<String> attributes = Arrays.stream(index.columnList().split(","))
+                    .map(c -> c.trim().toLowerCase(Locale.ROOT))
+                    .map(c -> Objects.requireNonNull(attributeByColumn.get(c), "Unknown index column " + c))
+                    .toList();
+            indexes.add(new ManagedIndex(index.name(), attributes));
+        }
+        return List.copyOf(indexes);
+    }
+}
@@ -2,37 +2,125 @@ package com.example.server.service;
 
 import com.example.server.exception.BusinessException;
 import com.example.server.model.ExecutionCode;
+import com.example.server.model.ExecutionStatus;
+import com.example.server.model.vo.AccountBalanceVO;
+import com.example.server.model.vo.BatchItemResultVO;
+import com.example.server.model.vo.CursorPageVO;
+import com.example.server.model.vo.TransactionAuditVO;
+import com.example.server.model.vo.TransactionSearchResultVO;
 import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.model.vo.TransactionSummaryVO;
+import com.example.server.model.data.ArchivedTransaction;
 import com.example.server.model.data.Transaction;
 import com.example.server.model.vo.TransactionVO;
+import com.example.server.repository.ArchivedTransactionRepository;
+import com.example.server.repository.TransactionProjectionRepository;
 import com.example.server.repository.TransactionRepository;
 import com.example.server.util.Constants;
+import com.example.server.util.CursorCodec;
+import com.example.server.util.TransactionMapper;
 import jakarta.persistence.criteria.*;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
+@Timed("transaction.service")
 public class TransactionService {
 
     // This service will handle transaction-related operations
     private final TransactionRepository transactionRepository;
-
-    public TransactionService(TransactionRepository transactionRepository) {
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final TransactionArchiver archiver;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionDescriptionIndex descriptionIndex;
+    private final TransactionAuditLog auditLog;
+    private final TransactionSummaryCounters summaryCounters;
+    private final AccountBalanceIndex balanceIndex;
+    private final TransactionSearchCache searchCache;
+    private final TransactionGroupCommit groupCommit;
+    private final ConnectionPermits connectionPermits;
+    private final TransactionSearchPlanner searchPlanner = new TransactionSearchPlanner();
+    private final DistributionSummary offsetSearchRows;
+    private final DistributionSummary keysetSearchRows;
+
+    private static final List<String> UPDATABLE_STATUSES = List.of(Constants.TX_STATUS_SUBMITTED, Constants.TX_STATUS_REJECTED);
+
+    // keyset pagination needs a NOT NULL sort column; id is appended as the tie-breaker
+    private static final Map<String, Class<?>> KEYSET_SORT_COLUMNS = Map.of(
+            "id", Long.class,
+            "transactionDate", LocalDateTime.class,
+            "amount", BigDecimal.class
+    );
+
+    // getters of every sortable column, so merging tiers does not look properties up by name per comparison
+    private static final Map<String, Function<TransactionSearchResultVO, Comparable<?>>> SORT_KEYS = Map.ofEntries(
+            Map.entry("id", TransactionSearchResultVO::getId),
+            Map.entry("type", TransactionSearchResultVO::getType),
+            Map.entry("amount", TransactionSearchResultVO::getAmount),
+            Map.entry("transactionDate", TransactionSearchResultVO::getTransactionDate),
+            Map.entry("transactionDescription", TransactionSearchResultVO::getTransactionDescription),
+            Map.entry("debitAccount", TransactionSearchResultVO::getDebitAccount),
+            Map.entry("creditAccount", TransactionSearchResultVO::getCreditAccount),
+            Map.entry("currency", TransactionSearchResultVO::getCurrency),
+            Map.entry("status", TransactionSearchResultVO::getStatus),
+            Map.entry("lastUpdated", TransactionSearchResultVO::getLastUpdated),
+            Map.entry("submittedBy", TransactionSearchResultVO::getSubmittedBy),
+            Map.entry("submittedAt", TransactionSearchResultVO::getSubmittedAt),
+            Map.entry("approvedBy", TransactionSearchResultVO::getApprovedBy),
+            Map.entry("approvedAt", TransactionSearchResultVO::getApprovedAt),
+            Map.entry("version", TransactionSearchResultVO::getVersion)
+    );
+
+    public TransactionService(TransactionRepository transactionRepository,
+                              ArchivedTransactionRepository archivedTransactionRepository, TransactionArchiver archiver,
+                              CacheManager cacheManager, ApplicationEventPublisher eventPublisher,
+                              TransactionDescriptionIndex descriptionIndex, TransactionAuditLog auditLog,
+                              TransactionSummaryCounters summaryCounters, AccountBalanceIndex balanceIndex,
+                              TransactionSearchCache searchCache,
+                              TransactionGroupCommit groupCommit, ConnectionPermits connectionPermits,
+                              MeterRegistry meterRegistry) {
         this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.archiver = archiver;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.descriptionIndex = descriptionIndex;
+        this.auditLog = auditLog;
+        this.summaryCounters = summaryCounters;
+        this.balanceIndex = balanceIndex;
+        this.searchCache = searchCache;
+        this.groupCommit = groupCommit;
+        this.connectionPermits = connectionPermits;
+        this.offsetSearchRows = searchRowsSummary(meterRegistry, Constants.PAGINATION_OFFSET);
+        this.keysetSearchRows = searchRowsSummary(meterRegistry, Constants.PAGINATION_KEYSET);
         log.info("TransactionService initialized with TransactionRepository");
     }
 
@@ -40,11 +128,13 @@ public class TransactionService {
     @Cacheable(value = "transaction", key = "#transactionId")
     public TransactionVO getTransactionById(Long transactionId, String userId) {
         try {
-            Transaction transaction = transactionRepository.findById(transactionId)
+            // the live table first: a row being archived is still there until it is in the archive
+            TransactionVO transactionVO = transactionRepository.findById(transactionId)
+                    .map(TransactionMapper::toVO)
+                    .or(() -> archiver.hasRows()
+                            ? archivedTransactionRepository.findById(transactionId).map(TransactionMapper::toVO)
+                            : Optional.empty())
                     .orElseThrow(() -> new BusinessException(ExecutionCode.NOT_FOUND));
-
-            TransactionVO transactionVO = new TransactionVO();
-            BeanUtils.copyProperties(transaction, transactionVO);
             log.info("Transaction detail of " + transactionId + " is retrieved successfully for user: " + userId);
             return transactionVO;
         } catch (Exception e) {
@@ -53,22 +143,86 @@ public class TransactionService {
         }
     }
 
+    /**
+     * Version of a transaction for conditional GETs, null when it does not exist. Taken from the cached
+     * detail when there is one, which is the version {@link #getTransactionById} would return, and
+     * otherwise read as a single column without loading the entity. The cache is peeked through its map
+     * view, so hit and miss statistics keep counting detail lookups only.
+     */
+    public Long getTransactionVersion(Long transactionId) {
+        Cache cache = cacheManager.getCache("transaction");
+        Object cached = null;
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            cached = caffeine.asMap().get(transactionId);
+        } else if (cache != null) {
+            cached = cache.get(transactionId, TransactionVO.class);
+        }
+        if (cached instanceof TransactionVO vo && vo.getVersion() != null) {
+            return vo.getVersion();
+        }
+        return transactionRepository.findVersionById(transactionId)
+                .or(() -> archiver.hasRows() ? archivedTransactionRepository.findVersionById(transactionId) : Optional.empty())
+                .orElse(null);
+    }
+
+    public List<TransactionAuditVO> getTransactionAudit(Long transactionId, String userId) {
+        return auditLog.findByTransactionId(transactionId);
+    }
+
+    public List<TransactionSummaryVO> getTransactionSummary(String status, String currency, String type,
+                                                            LocalDate startDate, LocalDate endDate) {
+        return summaryCounters.summarize(status, currency, type, startDate, endDate);
+    }
+
+    public List<AccountBalanceVO> getAccountBalance(String account, String currency) {
+        return balanceIndex.balances(account, currency);
+    }
+
     @Transactional
+    @CacheEvict(value = "transaction", key = "#transactionId")
     public Boolean deleteTransaction(Long transactionId, String userId) {
-        Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new BusinessException(ExecutionCode.NOT_FOUND));
-
-        transactionRepository.deleteById(transaction.getId());
-        log.info("Transaction " + transactionId + "gets deleted by user: " + userId);
+        List<TransactionRepository.SummaryView> previous = transactionRepository.deleteTransactionById(transactionId);
+        if (previous.isEmpty() && archiver.hasRows()) {
+            previous = archivedTransactionRepository.deleteArchivedTransactionById(transactionId);
+        }
+        if (previous.isEmpty()) {
+            log.error("Transaction with ID {} does not exist", transactionId);
+            throw new BusinessException(ExecutionCode.NOT_FOUND);
+        }
+        TransactionVO deleted = new TransactionVO();
+        deleted.setId(transactionId);
+        eventPublisher.publishEvent(new TransactionChangedEvent(Constants.TX_CONTEXT_DELETE, List.of(deleted),
+                List.of(previousState(transactionId, previous.get(0)))));
+        auditLog.record(Constants.TX_CONTEXT_DELETE, transactionId, previous.get(0).getStatus(), null, userId);
 
         return true;
     }
 
-    //to-do search transaction with criteria and pagination
-    @Transactional
-    public Page<Transaction> searchTransaction(TransactionSearchVO transactionSearchVO) {
+    // no surrounding transaction, so a cache hit takes neither a connection nor a connection permit; each
+    // query runs in its own read-only repository transaction, which under READ COMMITTED sees the same data
+    // as a shared one
+    public Page<TransactionSearchResultVO> searchTransaction(TransactionSearchVO transactionSearchVO) {
+        return searchCache.get(transactionSearchVO, () -> withPermit(() -> loadSearchPage(transactionSearchVO)));
+    }
+
+    public CursorPageVO<TransactionSearchResultVO> searchTransactionByCursor(TransactionSearchVO transactionSearchVO) {
+        return searchCache.get(transactionSearchVO, () -> withPermit(() -> loadSearchCursorPage(transactionSearchVO)));
+    }
+
+    // the search endpoints are left out of the permit interceptor, so a cache miss takes its permit here
+    private <T> T withPermit(Supplier<T> loader) {
+        connectionPermits.acquire();
+        try {
+            return loader.get();
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    private Page<TransactionSearchResultVO> loadSearchPage(TransactionSearchVO transactionSearchVO) {
         // build search criteria based on the TransactionSearchVO
-        Specification<Transaction> specification = buildTransactionSearchSpecification(transactionSearchVO);
+        TransactionSearchPlanner.SearchPlan plan = searchPlanner.plan(transactionSearchVO);
+        long[] candidates = resolveDescriptionCandidates(plan);
 
         String sortBy = transactionSearchVO.getSortBy();
         Sort.Order order = Sort.Order.desc("id"); // Default sort order
@@ -83,83 +237,426 @@ public class TransactionService {
                 transactionSearchVO.getPageSize(),
                 Sort.by(order)
         );
-        return transactionRepository.findAll(specification, transactionPage);
+        if (candidates != null && candidates.length == 0) {
+            offsetSearchRows.record(0);
+            return Page.empty(transactionPage);
+        }
+        Specification<Transaction> specification = buildTransactionSearchSpecification(plan, candidates);
+        Set<String> fields = resolveFields(transactionSearchVO, null);
+        if (archiver.mayContain(plan)) {
+            Specification<ArchivedTransaction> archived = buildTransactionSearchSpecification(plan, candidates);
+            List<TransactionSearchResultVO> content = searchBothTiers(specification, archived, fields,
+                    order.getProperty(), transactionPage.getOffset(), transactionPage.getPageSize());
+            offsetSearchRows.record(content.size());
+            return PageableExecutionUtils.getPage(content, transactionPage,
+                    () -> transactionRepository.count(specification) + archivedTransactionRepository.count(archived));
+        }
+        Page<TransactionSearchResultVO> page = fields == null
+                ? transactionRepository.findAll(specification, transactionPage).map(TransactionMapper::toSearchResult)
+                : PageableExecutionUtils.getPage(transactionRepository.findProjected(specification, fields,
+                        transactionPage.getSort(), transactionPage.getOffset(), transactionPage.getPageSize()),
+                        transactionPage, () -> transactionRepository.count(specification));
+        offsetSearchRows.record(page.getNumberOfElements());
+        return page;
+    }
+
+    private CursorPageVO<TransactionSearchResultVO> loadSearchCursorPage(TransactionSearchVO transactionSearchVO) {
+        // Map.of rejects a null key, so an omitted sortBy is checked before the lookup
+        String requested = transactionSearchVO.getSortBy();
+        String sortBy = requested != null && KEYSET_SORT_COLUMNS.containsKey(requested) ? requested : "id";
+        int pageSize = Math.min(Math.max(transactionSearchVO.getPageSize(), 1), Constants.MAX_PAGE_SIZE);
+        Set<String> fields = resolveFields(transactionSearchVO, sortBy);
+
+        TransactionSearchPlanner.SearchPlan plan = searchPlanner.plan(transactionSearchVO);
+        long[] candidates = resolveDescriptionCandidates(plan);
+        if (candidates != null && candidates.length == 0) {
+            keysetSearchRows.record(0);
+            return new CursorPageVO<>(List.of(), pageSize, false, null);
+        }
+        Specification<Transaction> specification = buildTransactionSearchSpecification(plan, candidates);
+        Specification<ArchivedTransaction> archived = archiver.mayContain(plan)
+                ? buildTransactionSearchSpecification(plan, candidates) : null;
+        String cursor = transactionSearchVO.getCursor();
+        if (cursor != null && !cursor.isEmpty()) {
+            CursorCodec.Position position = CursorCodec.decode(cursor, KEYSET_SORT_COLUMNS.get(sortBy));
+            if (position == null || !sortBy.equals(position.sortBy())) {
+                log.error("Invalid search cursor for sort column {}", sortBy);
+                throw new BusinessException(ExecutionCode.INVALID_PARAMETER);
+            }
+            specification = specification.and(buildSeekSpecification(position));
+            if (archived != null) {
+                archived = archived.and(buildSeekSpecification(position));
+            }
+        }
+
+        Sort sort = "id".equals(sortBy)
+                ? Sort.by(Sort.Direction.DESC, "id")
+                : Sort.by(Sort.Direction.DESC, sortBy).and(Sort.by(Sort.Direction.DESC, "id"));
+        // one extra row tells whether there is a next page, so no count query is needed
+        List<TransactionSearchResultVO> rows;
+        if (archived != null) {
+            rows = searchBothTiers(specification, archived, fields, sortBy, 0, pageSize + 1);
+        } else if (fields == null) {
+            List<Transaction> entities = transactionRepository.findBy(specification,
+                    q -> q.sortBy(sort).limit(pageSize + 1).all());
+            rows = new ArrayList<>(entities.size());
+            entities.forEach(t -> rows.add(TransactionMapper.toSearchResult(t)));
+        } else {
+            rows = transactionRepository.findProjected(specification, fields, sort, 0, pageSize + 1);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<TransactionSearchResultVO> content = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionSearchResultVO last = content.get(content.size() - 1);
+            nextCursor = CursorCodec.encode(sortBy, keysetSortValue(last, sortBy), last.getId());
+        }
+        keysetSearchRows.record(content.size());
+        return new CursorPageVO<>(content, pageSize, hasNext, nextCursor);
+    }
+
+    /**
+     * Rows {@code offset} to {@code offset + limit} of the live and archived rows matching a search,
+     * ordered by {@code sortBy} and id, both descending. Each tier reads at most its own first
+     * {@code offset + limit} rows through its indexes; past the first page only their ids and sort
+     * keys are read, and then the rows of the requested slice in full.
+     */
+    private List<TransactionSearchResultVO> searchBothTiers(Specification<Transaction> live,
+                                                            Specification<ArchivedTransaction> archived,
+                                                            Set<String> fields, String sortBy, long offset, int limit) {
+        Sort sort = "id".equals(sortBy)
+                ? Sort.by(Sort.Direction.DESC, "id")
+                : Sort.by(Sort.Direction.DESC, sortBy).and(Sort.by(Sort.Direction.DESC, "id"));
+        Set<String> selected = fields == null ? new LinkedHashSet<>(TransactionProjectionRepository.PROJECTABLE_FIELDS) : fields;
+        int rows = Math.toIntExact(offset + limit);
+        if (offset == 0 && selected.contains(sortBy)) {
+            List<TransactionSearchResultVO> merged = mergeTiers(
+                    transactionRepository.findProjected(Transaction.class, live, selected, sort, 0, rows),
+                    transactionRepository.findProjected(ArchivedTransaction.class, archived, selected, sort, 0, rows),
+                    sortBy);
+            return merged.subList(0, Math.min(limit, merged.size()));
+        }
+
+        Set<String> keys = new LinkedHashSet<>(List.of("id", sortBy));
+        List<TransactionSearchResultVO> liveKeys = transactionRepository.findProjected(Transaction.class, live, keys, sort, 0, rows);
+        List<TransactionSearchResultVO> merged = mergeTiers(liveKeys,
+                transactionRepository.findProjected(ArchivedTransaction.class, archived, keys, sort, 0, rows), sortBy);
+        if (merged.size() <= offset) {
+            return List.of();
+        }
+        List<Long> slice = merged.subList((int) offset, Math.min(rows, merged.size())).stream()
+                .map(TransactionSearchResultVO::getId).toList();
+        Set<Long> liveIds = new HashSet<>();
+        liveKeys.forEach(row -> liveIds.add(row.getId()));
+        List<Long> fromLive = slice.stream().filter(liveIds::contains).toList();
+        List<Long> fromArchive = slice.stream().filter(id -> !liveIds.contains(id)).toList();
+
+        Map<Long, TransactionSearchResultVO> byId = new HashMap<>(slice.size() * 2);
+        if (!fromLive.isEmpty()) {
+            transactionRepository.findProjected(Transaction.class, idIn(fromLive), selected, Sort.unsorted(), 0, fromLive.size())
+                    .forEach(row -> byId.put(row.getId(), row));
+        }
+        if (!fromArchive.isEmpty()) {
+            transactionRepository.findProjected(ArchivedTransaction.class, idIn(fromArchive), selected, Sort.unsorted(), 0,
+                    fromArchive.size()).forEach(row -> byId.put(row.getId(), row));
+        }
+        // a row moved to the archive between the two reads is gone from the live table; it is left out
+        List<TransactionSearchResultVO> page = new ArrayList<>(slice.size());
+        for (Long id : slice) {
+            TransactionSearchResultVO row = byId.get(id);
+            if (row != null) {
+                page.add(row);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Merges two result lists that are each sorted by {@code sortBy} and id descending, the way H2
+     * orders them (nulls last), and drops the second copy of a row that was read from both tiers
+     * while it was being archived.
+     */
+    private static List<TransactionSearchResultVO> mergeTiers(List<TransactionSearchResultVO> live,
+                                                              List<TransactionSearchResultVO> archived, String sortBy) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Comparator<TransactionSearchResultVO> order = Comparator
+                .comparing(sortKey(sortBy), Comparator.nullsFirst(Comparator.<Comparable<Object>>naturalOrder()).reversed())
+                .thenComparing(TransactionSearchResultVO::getId, Comparator.reverseOrder());
+        List<TransactionSearchResultVO> merged = new ArrayList<>(live.size() + archived.size());
+        Set<Long> seen = new HashSet<>();
+        int l = 0;
+        int a = 0;
+        while (l < live.size() || a < archived.size()) {
+            TransactionSearchResultVO next = a >= archived.size()
+                    || (l < live.size() && order.compare(live.get(l), archived.get(a)) <= 0) ? live.get(l++) : archived.get(a++);
+            if (seen.add(next.getId())) {
+                merged.add(next);
+            }
+        }
+        return merged;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<TransactionSearchResultVO, Comparable<Object>> sortKey(String sortBy) {
+        return (Function<TransactionSearchResultVO, Comparable<Object>>) (Function<?, ?>) SORT_KEYS.get(sortBy);
+    }
+
+    private static <T> Specification<T> idIn(Collection<Long> ids) {
+        return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> root.get("id").in(ids);
     }
 
     @Transactional
     @CacheEvict(value = "transaction", key = "#transactionVO.id")
     public Integer handleTransaction(TransactionVO transactionVO, String context, String userId) {
         // Validate the transaction before adding
-        ExecutionCode validation = validateTransaction(transactionVO, context, userId);
+        ExecutionStatus validation = validateTransaction(transactionVO, context, userId);
         if (ExecutionCode.SUCCESS.getCode() != validation.getCode()) {
             log.error("Transaction validation failed for {} operation by user {}", context, userId);
             throw new BusinessException(validation);
         }
 
-        String status = switch (context) {
-            case Constants.TX_CONTEXT_APPROVE -> Constants.TX_STATUS_APPROVED;
-            case Constants.TX_CONTEXT_CANCEL -> Constants.TX_STATUS_CANCELLED;
-            case Constants.TX_CONTEXT_REJECT -> Constants.TX_STATUS_REJECTED;
-            default -> {
-                log.error("Invalid context for transaction handling: {}", context);
-                throw new BusinessException(ExecutionCode.INVALID_PARAMETER);
+        String status = targetStatus(context);
+
+        // the update returns the row it wrote over, which is what the audit trail and summary counters move away from
+        TransactionRepository.PriorRowView prior = checkGuardedWrite(transactionVO, context,
+                transactionRepository.updateTransactionStatusById(transactionVO.getId(), Constants.TX_STATUS_SUBMITTED,
+                        transactionVO.getVersion(), status, LocalDateTime.now()));
+        TransactionVO changed = new TransactionVO();
+        changed.setId(transactionVO.getId());
+        changed.setStatus(status);
+        eventPublisher.publishEvent(new TransactionChangedEvent(context, List.of(changed),
+                List.of(previousState(transactionVO.getId(), prior))));
+        auditLog.record(context, transactionVO.getId(), prior.getStatus(), status, userId);
+        return 1;
+    }
+
+    @Transactional
+    public List<BatchItemResultVO<Long>> handleTransactions(List<Long> transactionIds, String context, String userId) {
+        if (transactionIds == null || transactionIds.isEmpty() || transactionIds.size() > Constants.MAX_BATCH_SIZE
+                || transactionIds.stream().anyMatch(Objects::isNull) || userId == null || userId.isEmpty()) {
+            log.error("Invalid batch {} request by user {}", context, userId);
+            throw new BusinessException(ExecutionCode.INVALID_PARAMETER);
+        }
+        String status = targetStatus(context);
+
+        List<Long> distinctIds = List.copyOf(new LinkedHashSet<>(transactionIds));
+        Map<Long, String> outcomes = new HashMap<>(distinctIds.size() * 2);
+        List<Long> transitioned = new ArrayList<>();
+        List<TransactionVO> previous = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < distinctIds.size(); from += Constants.BATCH_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(distinctIds.size(), from + Constants.BATCH_CHUNK_SIZE));
+
+            for (TransactionRepository.PriorRowView row : transactionRepository.updateTransactionStatusByIds(chunk,
+                    Constants.TX_STATUS_SUBMITTED, status, now)) {
+                if (Constants.TX_STATUS_SUBMITTED.equals(row.getStatus())) {
+                    outcomes.put(row.getId(), Constants.BATCH_OUTCOME_TRANSITIONED);
+                    transitioned.add(row.getId());
+                    previous.add(previousState(row.getId(), row));
+                } else {
+                    // written over a concurrent transition; only this row is undone, not the whole batch
+                    transactionRepository.restoreTransactionStatusById(row.getId(), row.getStatus(), row.getVersion(),
+                            row.getLastUpdated());
+                    outcomes.put(row.getId(), Constants.BATCH_OUTCOME_WRONG_STATE);
+                }
             }
-        };
+            // ids the update did not match are read only to tell a wrong status from a missing row
+            List<Long> missing = chunk.stream().filter(id -> !outcomes.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                transactionRepository.findStatusesByIds(missing)
+                        .forEach(row -> outcomes.put(row.getId(), Constants.BATCH_OUTCOME_WRONG_STATE));
+                missing = missing.stream().filter(id -> !outcomes.containsKey(id)).toList();
+            }
+            // archived rows are in a final status
+            if (!missing.isEmpty() && archiver.hasRows()) {
+                archivedTransactionRepository.findArchivedIds(missing)
+                        .forEach(id -> outcomes.put(id, Constants.BATCH_OUTCOME_WRONG_STATE));
+            }
+        }
+        evictTransactions(transitioned);
+        if (!transitioned.isEmpty()) {
+            List<TransactionVO> changed = new ArrayList<>(transitioned.size());
+            List<TransactionAuditVO> audit = new ArrayList<>(transitioned.size());
+            for (Long id : transitioned) {
+                TransactionVO transaction = new TransactionVO();
+                transaction.setId(id);
+                transaction.setStatus(status);
+                changed.add(transaction);
+                audit.add(new TransactionAuditVO(id, context, Constants.TX_STATUS_SUBMITTED, status, userId, now));
+            }
+            eventPublisher.publishEvent(new TransactionChangedEvent(context, changed, previous));
+            auditLog.record(audit);
+        }
+
+        List<BatchItemResultVO<Long>> results = new ArrayList<>(transactionIds.size());
+        for (int i = 0; i < transactionIds.size(); i++) {
+            Long id = transactionIds.get(i);
+            String outcome = outcomes.getOrDefault(id, Constants.BATCH_OUTCOME_NOT_FOUND);
+            ExecutionCode code = switch (outcome) {
+                case Constants.BATCH_OUTCOME_TRANSITIONED -> ExecutionCode.SUCCESS;
+                case Constants.BATCH_OUTCOME_WRONG_STATE -> ExecutionCode.BUSINESS_ERROR;
+                default -> ExecutionCode.NOT_FOUND;
+            };
+            results.add(new BatchItemResultVO<>(i, code.getCode(), outcome, id));
+        }
 
-        return transactionRepository.updateTransactionStatusById(transactionVO.getId(), status, LocalDateTime.now());
+        log.info("{} of {} transactions moved to {} in batch by user: {}", transitioned.size(), transactionIds.size(), status, userId);
+        return results;
     }
 
-    @Transactional
+    // no surrounding transaction: the insert commits on its own, or in a group commit that a caller
+    // holding a pooled connection while it waits could starve
+    @CachePut(value = "transaction", key = "#result.id")
     public TransactionVO createTransaction(TransactionVO transactionVO, String context, String userId) {
-        ExecutionCode validation = validateTransaction(transactionVO, context, userId);
+        ExecutionStatus validation = validateTransaction(transactionVO, context, userId);
         if (ExecutionCode.SUCCESS.getCode() != validation.getCode()) {
             log.error("Transaction validation failed for {} operation by user {}", context, userId);
             throw new BusinessException(validation);
         }
 
-        Transaction toCreate = new Transaction();
-        BeanUtils.copyProperties(transactionVO, toCreate);
+        Transaction toCreate = TransactionMapper.toEntity(transactionVO);
 
         toCreate.setLastUpdated(LocalDateTime.now());
         toCreate.setSubmittedBy(userId);
         toCreate.setSubmittedAt(LocalDateTime.now());
         toCreate.setStatus(Constants.TX_STATUS_SUBMITTED);
 
-        Transaction newTransaction = transactionRepository.save(toCreate);
+        Transaction newTransaction = groupCommit.isEnabled()
+                ? groupCommit.insert(toCreate) : transactionRepository.save(toCreate);
 
-        TransactionVO created = new TransactionVO();
-        BeanUtils.copyProperties(newTransaction, created);
+        TransactionVO created = TransactionMapper.toVO(newTransaction);
+        eventPublisher.publishEvent(new TransactionChangedEvent(Constants.TX_CONTEXT_CREATE, List.of(created)));
 
         log.info("Transaction updated successfully by user: {}", userId);
         return created;
     }
 
+    @Transactional
+    public List<BatchItemResultVO<TransactionVO>> createTransactions(List<TransactionVO> transactionVOs, String context, String userId) {
+        if (transactionVOs == null || transactionVOs.isEmpty() || transactionVOs.size() > Constants.MAX_BATCH_SIZE) {
+            log.error("Batch size must be between 1 and {}", Constants.MAX_BATCH_SIZE);
+            throw new BusinessException(ExecutionCode.INVALID_PARAMETER);
+        }
+
+        List<BatchItemResultVO<TransactionVO>> results = new ArrayList<>(transactionVOs.size());
+        List<Transaction> toCreate = new ArrayList<>(transactionVOs.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < transactionVOs.size(); i++) {
+            TransactionVO transactionVO = transactionVOs.get(i);
+            ExecutionStatus validation = validateTransaction(transactionVO, context, userId);
+            if (ExecutionCode.SUCCESS.getCode() != validation.getCode()) {
+                results.add(new BatchItemResultVO<>(i, validation.getCode(), validation.getMessage(), null));
+                continue;
+            }
+
+            Transaction transaction = TransactionMapper.toEntity(transactionVO);
+            transaction.setLastUpdated(now);
+            transaction.setSubmittedBy(userId);
+            transaction.setSubmittedAt(now);
+            transaction.setStatus(Constants.TX_STATUS_SUBMITTED);
+            toCreate.add(transaction);
+            results.add(null);
+        }
+
+        // ids come from the pooled sequence, so Hibernate sends the inserts as JDBC batches on flush
+        Iterator<Transaction> saved = transactionRepository.saveAll(toCreate).iterator();
+        List<TransactionVO> createdTransactions = new ArrayList<>(toCreate.size());
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                TransactionVO created = TransactionMapper.toVO(saved.next());
+                createdTransactions.add(created);
+                results.set(i, new BatchItemResultVO<>(i, ExecutionCode.SUCCESS.getCode(), ExecutionCode.SUCCESS.getMessage(), created));
+            }
+        }
+        if (!createdTransactions.isEmpty()) {
+            eventPublisher.publishEvent(new TransactionChangedEvent(Constants.TX_CONTEXT_CREATE, createdTransactions));
+        }
+
+        log.info("{} of {} transactions created in batch by user: {}", toCreate.size(), transactionVOs.size(), userId);
+        return results;
+    }
+
     @Transactional
     @CacheEvict(value = "transaction", key = "#transactionVO.id")
     public Integer updateTransactionBasicInfo(TransactionVO transactionVO, String context, String userId) {
-        ExecutionCode validation = validateTransaction(transactionVO, context, userId);
+        ExecutionStatus validation = validateTransaction(transactionVO, context, userId);
         if (ExecutionCode.SUCCESS.getCode() != validation.getCode()) {
             log.error("Transaction validation failed for {} operation by user {}", context, userId);
             throw new BusinessException(validation);
         }
 
-        int updateNum = transactionRepository.updateTransactionBasicInfoById(transactionVO.getId(),
-                transactionVO.getType(), transactionVO.getAmount(), transactionVO.getTransactionDate(),
-                transactionVO.getTransactionDescription(), transactionVO.getDebitAccount(),
-                transactionVO.getCreditAccount(), transactionVO.getCurrency(), LocalDateTime.now());
+        TransactionRepository.PriorRowView prior = checkGuardedWrite(transactionVO, context,
+                transactionRepository.updateTransactionBasicInfoById(transactionVO.getId(),
+                        UPDATABLE_STATUSES, transactionVO.getVersion(),
+                        transactionVO.getType(), transactionVO.getAmount(), transactionVO.getTransactionDate(),
+                        transactionVO.getTransactionDescription(), transactionVO.getDebitAccount(),
+                        transactionVO.getCreditAccount(), transactionVO.getCurrency(), LocalDateTime.now()));
+        transactionVO.setStatus(Constants.TX_STATUS_SUBMITTED);
+        eventPublisher.publishEvent(new TransactionChangedEvent(Constants.TX_CONTEXT_UPDATE, List.of(transactionVO),
+                List.of(previousState(transactionVO.getId(), prior))));
+        auditLog.record(Constants.TX_CONTEXT_UPDATE, transactionVO.getId(), prior.getStatus(),
+                Constants.TX_STATUS_SUBMITTED, userId);
+        return 1;
+    }
 
-        log.info("Transaction updated successfully by user: {}", userId);
-        return updateNum;
+    private static TransactionVO previousState(Long id, TransactionRepository.SummaryView row) {
+        TransactionVO transaction = new TransactionVO();
+        transaction.setId(id);
+        transaction.setStatus(row.getStatus());
+        transaction.setCurrency(row.getCurrency());
+        transaction.setType(row.getType());
+        transaction.setTransactionDate(row.getTransactionDate());
+        transaction.setAmount(row.getAmount());
+        transaction.setDebitAccount(row.getDebitAccount());
+        transaction.setCreditAccount(row.getCreditAccount());
+        transaction.setSubmittedBy(row.getSubmittedBy());
+        return transaction;
     }
 
-    private ExecutionCode validateTransaction(TransactionVO transaction, String context, String userId) {
+    private static DistributionSummary searchRowsSummary(MeterRegistry meterRegistry, String pagination) {
+        return DistributionSummary.builder("transaction.search.rows")
+                .description("Rows returned by one search page")
+                .tag("pagination", pagination)
+                .serviceLevelObjectives(1, 10, 20, 50, 100, 500)
+                .register(meterRegistry);
+    }
+
+    private String targetStatus(String context) {
+        return switch (context) {
+            case Constants.TX_CONTEXT_APPROVE -> Constants.TX_STATUS_APPROVED;
+            case Constants.TX_CONTEXT_CANCEL -> Constants.TX_STATUS_CANCELLED;
+            case Constants.TX_CONTEXT_REJECT -> Constants.TX_STATUS_REJECTED;
+            default -> {
+                log.error("Invalid context for transaction handling: {}", context);
+                throw new BusinessException(ExecutionCode.INVALID_PARAMETER);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictTransactions(Collection<Long> transactionIds) {
+        Cache cache = cacheManager.getCache("transaction");
+        if (cache == null || transactionIds.isEmpty()) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) caffeine).invalidateAll(transactionIds);
+        } else {
+            transactionIds.forEach(cache::evict);
+        }
+    }
+
+    private ExecutionStatus validateTransaction(TransactionVO transaction, String context, String userId) {
         if (context == null || context.isEmpty()) {
             log.error("Operation context is null or empty");
             return ExecutionCode.INVALID_PARAMETER;
         }
 
         if (Constants.TX_CONTEXT_CREATE.equals(context)) {
-            ExecutionCode validator = validateTransactionProperties(transaction, userId);
+            ExecutionStatus validator = validateTransactionProperties(transaction, userId);
             if (ExecutionCode.SUCCESS.getCode() != validator.getCode()) {
                 log.error("Transaction properties validation failed: {}", validator.getMessage());
                 return validator;
@@ -172,37 +669,24 @@ public class TransactionService {
         }
 
         // 其它 context 统一校验
-        if (transaction.getId() == null) {
+        // nothing is read here: the guarded update checks the status, and only a rejected write reads the row
+        if (transaction == null || transaction.getId() == null) {
             log.error("Transaction ID is required for {}", context);
             return ExecutionCode.INVALID_PARAMETER;
         }
-        Transaction currentTransaction = transactionRepository.findById(transaction.getId()).orElse(null);
-        if (currentTransaction == null) {
-            log.error("Transaction with ID {} does not exist", transaction.getId());
-            return ExecutionCode.NOT_FOUND;
-        }
 
         if (Constants.TX_CONTEXT_UPDATE.equals(context)) {
-            ExecutionCode validator = validateTransactionProperties(transaction, userId);
+            ExecutionStatus validator = validateTransactionProperties(transaction, userId);
             if (ExecutionCode.SUCCESS.getCode() != validator.getCode()) {
                 log.error("Transaction properties validation failed: {}", validator.getMessage());
                 return validator;
             }
-            if (!Constants.TX_STATUS_SUBMITTED.equals(currentTransaction.getStatus())
-                    && !Constants.TX_STATUS_REJECTED.equals(currentTransaction.getStatus())) {
-                log.error("Transaction only SUBMITTED OR REJECTED status can {}", context);
-                return ExecutionCode.BUSINESS_ERROR;
-            }
             return ExecutionCode.SUCCESS;
         }
 
         if (Constants.TX_CONTEXT_APPROVE.equals(context)
                 || Constants.TX_CONTEXT_REJECT.equals(context)
                 || Constants.TX_CONTEXT_CANCEL.equals(context)) {
-            if (!Constants.TX_STATUS_SUBMITTED.equals(currentTransaction.getStatus())) {
-                log.error("Transaction only SUBMITTED status can {}", context);
-                return ExecutionCode.BUSINESS_ERROR;
-            }
             return ExecutionCode.SUCCESS;
         }
 
@@ -210,7 +694,49 @@ public class TransactionService {
         return ExecutionCode.BUSINESS_ERROR;
     }
 
-    private ExecutionCode validateTransactionProperties(TransactionVO transaction, String userId) {
+    /**
+     * Returns the row a guarded update wrote over, or throws, rolling the update back, when it matched no row
+     * or wrote over a row its guard does not hold for.
+     */
+    private TransactionRepository.PriorRowView checkGuardedWrite(TransactionVO transaction, String context,
+                                                                  List<TransactionRepository.PriorRowView> written) {
+        if (written.isEmpty()) {
+            throw new BusinessException(resolveRejectedWrite(transaction, context,
+                    transactionRepository.findStatusById(transaction.getId()).orElse(null)));
+        }
+        TransactionRepository.PriorRowView prior = written.get(0);
+        boolean statusHeld = Constants.TX_CONTEXT_UPDATE.equals(context) ? UPDATABLE_STATUSES.contains(prior.getStatus())
+                : Constants.TX_STATUS_SUBMITTED.equals(prior.getStatus());
+        if (!statusHeld || (transaction.getVersion() != null && !transaction.getVersion().equals(prior.getVersion()))) {
+            throw new BusinessException(resolveRejectedWrite(transaction, context, prior));
+        }
+        return prior;
+    }
+
+    /**
+     * Explains why a guarded update was rejected, from the row its guard was checked against.
+     */
+    private ExecutionCode resolveRejectedWrite(TransactionVO transaction, String context,
+                                               TransactionRepository.StatusView current) {
+        if (current == null) {
+            if (archiver.hasRows() && archivedTransactionRepository.existsById(transaction.getId())) {
+                log.error("Transaction {} is archived and cannot {}", transaction.getId(), context);
+                return ExecutionCode.BUSINESS_ERROR;
+            }
+            log.error("Transaction with ID {} does not exist", transaction.getId());
+            return ExecutionCode.NOT_FOUND;
+        }
+        if (Constants.TX_CONTEXT_UPDATE.equals(context) ? !UPDATABLE_STATUSES.contains(current.getStatus())
+                : !Constants.TX_STATUS_SUBMITTED.equals(current.getStatus())) {
+            log.error("Transaction {} in status {} cannot {}", transaction.getId(), current.getStatus(), context);
+            return ExecutionCode.BUSINESS_ERROR;
+        }
+        log.error("Transaction {} version {} is stale for {}, current version is {}",
+                transaction.getId(), transaction.getVersion(), context, current.getVersion());
+        return ExecutionCode.CONFLICT;
+    }
+
+    private ExecutionStatus validateTransactionProperties(TransactionVO transaction, String userId) {
         if (transaction == null || userId == null || userId.isEmpty()) {
             return ExecutionCode.INVALID_PARAMETER;
         }
@@ -236,38 +762,127 @@ public class TransactionService {
         return ExecutionCode.SUCCESS;
     }
 
-    private Specification<Transaction> buildTransactionSearchSpecification(TransactionSearchVO vo) {
-        return (Root<Transaction> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
-            Predicate predicate = cb.conjunction();
+    /**
+     * Resolves the description filter through the trigram index. Returns {@code null} when the
+     * search has no description filter or the index cannot narrow it; an empty array means no row
+     * can match.
+     */
+    private long[] resolveDescriptionCandidates(TransactionSearchPlanner.SearchPlan plan) {
+        return plan.predicates().stream()
+                .filter(p -> p.operator() == TransactionSearchPlanner.Operator.LIKE)
+                .findFirst()
+                .map(p -> descriptionIndex.candidates((String) p.value()))
+                .orElse(null);
+    }
 
-            if (vo.getId() != null) {
-                predicate = cb.and(predicate, cb.equal(root.get("id"), vo.getId()));
-            }
-            if (vo.getType() != null && !vo.getType().isEmpty()) {
-                predicate = cb.and(predicate, cb.equal(root.get("type"), vo.getType()));
-            }
-            if (vo.getStatus() != null && !vo.getStatus().isEmpty()) {
-                predicate = cb.and(predicate, cb.equal(root.get("status"), vo.getStatus()));
-            }
-            if (vo.getStartDate() != null) {
-                predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.get("transactionDate"), vo.getStartDate()));
-            }
-            if (vo.getEndDate() != null) {
-                predicate = cb.and(predicate, cb.lessThanOrEqualTo(root.get("transactionDate"), vo.getEndDate()));
+    private <T> Specification<T> buildTransactionSearchSpecification(TransactionSearchPlanner.SearchPlan plan,
+                                                                     long[] candidates) {
+        log.debug("Search planned on index {} with {} predicates and {} description candidates", plan.indexName(),
+                plan.predicates().size(), candidates == null ? "no" : candidates.length);
+
+        return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            // the LIKE predicate stays, so the candidate ids only have to be a superset
+            List<Predicate> predicates = new ArrayList<>(plan.predicates().size() + 1);
+            if (candidates != null) {
+                predicates.add(root.get("id").in(Arrays.stream(candidates).boxed().toList()));
             }
-            if (vo.getTransactionDescription() != null && !vo.getTransactionDescription().isEmpty()) {
-                predicate = cb.and(predicate, cb.like(root.get("transactionDescription"), "%" + vo.getTransactionDescription() + "%"));
+            TransactionSearchPlanner.SearchPredicate either = plan.predicates().stream()
+                    .filter(p -> p.operator() == TransactionSearchPlanner.Operator.EITHER)
+                    .findFirst()
+                    .orElse(null);
+            for (TransactionSearchPlanner.SearchPredicate predicate : plan.predicates()) {
+                if (either == null || predicate.operator() == TransactionSearchPlanner.Operator.LIKE) {
+                    predicates.add(toPredicate(predicate, root, cb));
+                } else if (predicate == either) {
+                    predicates.add(root.get("id").in(buildUnion(either, plan, root, query, cb)));
+                }
             }
-            if (vo.getSubmittedBy() != null && !vo.getSubmittedBy().isEmpty()) {
-                predicate = cb.and(predicate, cb.equal(root.get("submittedBy"), vo.getSubmittedBy()));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Ids matching an {@link TransactionSearchPlanner.Operator#EITHER} predicate as a UNION of one
+     * subquery per attribute. Every other index-servable filter is applied inside each subquery, so
+     * each branch is a single range scan of its (account, amount) index.
+     */
+    private Subquery<Long> buildUnion(TransactionSearchPlanner.SearchPredicate either,
+                                      TransactionSearchPlanner.SearchPlan plan, Root<?> root,
+                                      CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Subquery<Long>> branches = new ArrayList<>();
+        for (String attribute : TransactionSearchPlanner.EITHER_ATTRIBUTES.get(either.attribute())) {
+            Subquery<Long> branch = query.subquery(Long.class);
+            Root<?> branchRoot = branch.from(root.getJavaType());
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(branchRoot.get(attribute), either.value()));
+            for (TransactionSearchPlanner.SearchPredicate predicate : plan.predicates()) {
+                if (predicate != either && predicate.operator() != TransactionSearchPlanner.Operator.LIKE) {
+                    predicates.add(toPredicate(predicate, branchRoot, cb));
+                }
             }
-            if (vo.getApprovedBy() != null && !vo.getApprovedBy().isEmpty()) {
-                predicate = cb.and(predicate, cb.equal(root.get("approvedBy"), vo.getApprovedBy()));
+            branch.select(branchRoot.get("id")).where(predicates.toArray(Predicate[]::new));
+            branches.add(branch);
+        }
+        return ((HibernateCriteriaBuilder) cb).union(branches.get(0), branches.subList(1, branches.size())
+                .toArray(Subquery[]::new));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate toPredicate(TransactionSearchPlanner.SearchPredicate predicate, Root<?> root, CriteriaBuilder cb) {
+        return switch (predicate.operator()) {
+            case EQUAL -> cb.equal(root.get(predicate.attribute()), predicate.value());
+            case GREATER_OR_EQUAL -> cb.greaterThanOrEqualTo(root.<Comparable<Object>>get(predicate.attribute()),
+                    (Comparable<Object>) predicate.value());
+            case LESS_OR_EQUAL -> cb.lessThanOrEqualTo(root.<Comparable<Object>>get(predicate.attribute()),
+                    (Comparable<Object>) predicate.value());
+            case LIKE -> cb.like(root.get(predicate.attribute()), "%" + predicate.value() + "%");
+            case EITHER -> throw new IllegalArgumentException("EITHER predicates are rendered as a union");
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Specification<T> buildSeekSpecification(CursorCodec.Position position) {
+        return (Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            Path<Long> id = root.get("id");
+            if ("id".equals(position.sortBy())) {
+                return cb.lessThan(id, position.id());
             }
-            return predicate;
+            // (key, id) < (value, lastId); the redundant key <= value bound keeps the key's index usable
+            Path<Comparable<Object>> key = root.get(position.sortBy());
+            Comparable<Object> value = (Comparable<Object>) position.sortValue();
+            return cb.and(cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, position.id()))));
         };
     }
 
+    /**
+     * Properties selected by a search with {@code fields}, always including the id and the keyset
+     * sort column; {@code null} when the search returns every property.
+     */
+    private Set<String> resolveFields(TransactionSearchVO transactionSearchVO, String keysetSortBy) {
+        List<String> requested = transactionSearchVO.getFields();
+        if (requested == null || requested.isEmpty()) {
+            return null;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add("id");
+        if (keysetSortBy != null) {
+            fields.add(keysetSortBy);
+        }
+        for (String field : requested) {
+            if (field == null || !TransactionProjectionRepository.PROJECTABLE_FIELDS.contains(field)) {
+                log.error("Unknown search field {}", field);
+                throw new BusinessException(ExecutionCode.INVALID_PARAMETER.withProperty("fields"));
+            }
+            fields.add(field);
+        }
+        return fields.size() == TransactionProjectionRepository.PROJECTABLE_FIELDS.size() ? null : fields;
+    }
+
+    private Object keysetSortValue(TransactionSearchResultVO transaction, String sortBy) {
+        return SORT_KEYS.get(sortBy).apply(transaction);
+    }
+
     private boolean isValidColumn(String column) {
         // Check if the column is a valid field in the Transaction entity
         try {
@@ -0,0 +1,140 @@
+package com.example.server.service;
+
+import com.example.server.model.vo.TransactionSummaryVO;
+import com.example.server.model.vo.TransactionVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory count and amount sum of transactions per status, currency, type and day.
+ * <p>
+ * The totals are loaded with one GROUP BY over the live and archive tables at startup and then follow every committed write through
+ * {@link TransactionChangedEvent}: a write takes its row out of the bucket it was in and adds it to
+ * the bucket it is in now. Reading a summary walks the (status, currency, type) groups and the days
+ * of the requested range, so its cost depends on the number of buckets, not on the number of rows,
+ * and it never touches the database.
+ */
+@Component
+@Slf4j
+public class TransactionSummaryCounters implements SmartInitializingSingleton {
+
+    // bucket of rows without a transaction date; like NULL in SQL it falls outside every date range
+    private static final LocalDate NO_DATE = LocalDate.MIN;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile ConcurrentMap<GroupKey, ConcurrentNavigableMap<LocalDate, Totals>> groups = new ConcurrentHashMap<>();
+
+    public TransactionSummaryCounters(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the totals from both tables. Runs at startup, before requests are served; a write that
+     * commits while the tables are read may be counted twice or not at all.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ConcurrentMap<GroupKey, ConcurrentNavigableMap<LocalDate, Totals>> rebuilt = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT status, currency, type, CAST(transaction_date AS DATE), COUNT(*), SUM(amount) " +
+                        "FROM (SELECT status, currency, type, transaction_date, amount FROM transactions " +
+                        "UNION ALL SELECT status, currency, type, transaction_date, amount FROM transactions_archive) " +
+                        "GROUP BY status, currency, type, CAST(transaction_date AS DATE)",
+                resultSet -> {
+                    LocalDate day = resultSet.getObject(4, LocalDate.class);
+                    BigDecimal amount = resultSet.getBigDecimal(6);
+                    rebuilt.computeIfAbsent(new GroupKey(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3)),
+                                    k -> new ConcurrentSkipListMap<>())
+                            .put(day == null ? NO_DATE : day,
+                                    new Totals(resultSet.getLong(5), amount == null ? BigDecimal.ZERO : amount));
+                });
+        groups = rebuilt;
+        log.info("Summary counters rebuilt with {} groups in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Totals per status, currency and type of the transactions matching every non-null argument.
+     * The date range is inclusive on both ends.
+     */
+    public List<TransactionSummaryVO> summarize(String status, String currency, String type,
+                                                LocalDate startDate, LocalDate endDate) {
+        List<TransactionSummaryVO> summary = new ArrayList<>();
+        for (Map.Entry<GroupKey, ConcurrentNavigableMap<LocalDate, Totals>> group : groups.entrySet()) {
+            GroupKey key = group.getKey();
+            if (!matches(status, key.status()) || !matches(currency, key.currency()) || !matches(type, key.type())) {
+                continue;
+            }
+            NavigableMap<LocalDate, Totals> days = group.getValue();
+            if (startDate != null || endDate != null) {
+                days = days.subMap(startDate == null ? NO_DATE : startDate, startDate != null,
+                        endDate == null ? LocalDate.MAX : endDate, true);
+            }
+            long count = 0;
+            BigDecimal amount = BigDecimal.ZERO;
+            for (Totals totals : days.values()) {
+                count += totals.count();
+                amount = amount.add(totals.amount());
+            }
+            if (count > 0) {
+                summary.add(new TransactionSummaryVO(key.status(), key.currency(), key.type(), count, amount));
+            }
+        }
+        summary.sort(Comparator.comparing(TransactionSummaryVO::getStatus, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(TransactionSummaryVO::getCurrency, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(TransactionSummaryVO::getType, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return summary;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTransactionChanged(TransactionChangedEvent event) {
+        event.forEachDelta(this::add);
+    }
+
+    private void add(TransactionVO transaction, String status, int sign) {
+        add(status, transaction.getCurrency(), transaction.getType(),
+                transaction.getTransactionDate() == null ? null : transaction.getTransactionDate().toLocalDate(),
+                transaction.getAmount(), sign);
+    }
+
+    private void add(String status, String currency, String type, LocalDate day, BigDecimal amount, int sign) {
+        BigDecimal delta = amount == null ? BigDecimal.ZERO : sign < 0 ? amount.negate() : amount;
+        groups.computeIfAbsent(new GroupKey(status, currency, type), k -> new ConcurrentSkipListMap<>())
+                .compute(day == null ? NO_DATE : day, (d, totals) -> {
+                    Totals updated = totals == null ? new Totals(sign, delta)
+                            : new Totals(totals.count() + sign, totals.amount().add(delta));
+                    return updated.count() == 0 ? null : updated;
+                });
+    }
+
+    private static boolean matches(String filter, String value) {
+        return filter == null || filter.isEmpty() || Objects.equals(filter, value);
+    }
+
+    private record GroupKey(String status, String currency, String type) {
+    }
+
+    private record Totals(long count, BigDecimal amount) {
+    }
+}
@@ -7,6 +7,8 @@ public class Constants {
     public static final String DEFAULT_CURRENCY = "CNY";
     public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
     public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int BATCH_CHUNK_SIZE = 1000;
 
     public static final String TX_TYPE_PAYMENT = "PAYMENT";
     public static final String TX_TYPE_LOAN = "LOAN";
@@ -16,6 +18,7 @@ public class Constants {
     public static final String TX_CONTEXT_APPROVE = "APPROVE";
     public  static final String TX_CONTEXT_REJECT = "REJECT";
     public static final String TX_CONTEXT_CANCEL = "CANCEL";
+    public static final String TX_CONTEXT_DELETE = "DELETE";
 
     public static final String TX_STATUS_COMPLETED = "COMPLETED";
     public static final String TX_STATUS_SUBMITTED = "SUBMITTED";
@@ -23,6 +26,18 @@ public class Constants {
     public static final String TX_STATUS_REJECTED = "REJECTED";
     public static final String TX_STATUS_CANCELLED = "CANCELLED";
 
+    public static final String BATCH_OUTCOME_TRANSITIONED = "TRANSITIONED";
+    public static final String BATCH_OUTCOME_WRONG_STATE = "WRONG_STATE";
+    public static final String BATCH_OUTCOME_NOT_FOUND = "NOT_FOUND";
+
     public static final String DESC = "desc";
     public static final String ASC = "asc";
+
+    public static final String PAGINATION_OFFSET = "offset";
+    public static final String PAGINATION_KEYSET = "keyset";
+
+    public static final String EXPORT_FORMAT_NDJSON = "ndjson";
+    public static final String EXPORT_FORMAT_CSV = "csv";
+    public static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+    public static final String MEDIA_TYPE_COLUMNAR_JSON = "application/vnd.transaction.columnar+json";
 }
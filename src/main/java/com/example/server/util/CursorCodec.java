@@ -0,0 +1,62 @@
+package com.example.server.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset position of the last row of a page (sort column, its value and the row id)
+ * into an opaque URL-safe token, and decodes it back. Returns null for tokens that cannot be parsed.
+ */
+public final class CursorCodec {
+
+    public record Position(String sortBy, Object sortValue, long id) {
+    }
+
+    private static final char SEPARATOR = '\n';
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String sortBy, Object sortValue, long id) {
+        String raw = sortBy + SEPARATOR + format(sortValue) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Position decode(String token, Class<?> sortType) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || first == last) {
+                return null;
+            }
+            return new Position(raw.substring(0, first),
+                    parse(raw.substring(first + 1, last), sortType),
+                    Long.parseLong(raw.substring(last + 1)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String format(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return String.valueOf(value);
+    }
+
+    private static Object parse(String value, Class<?> type) {
+        if (type == Long.class) {
+            return Long.valueOf(value);
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(value);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(value);
+        }
+        throw new IllegalArgumentException("Unsupported cursor type " + type);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.server.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, over a power-of-two ring.
+ * <p>
+ * Each slot carries a sequence number: a producer may claim position {@code p} only when the slot's
+ * sequence equals {@code p}, publishes the element by setting it to {@code p + 1}, and the consumer
+ * frees the slot for the next lap by setting it to {@code p + capacity}. Producers never block;
+ * {@link #offer} returns false when the ring is full.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // only touched by the consumer thread; volatile so size() can read it from other threads
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, was " + capacity);
+        }
+        slots = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                return false;
+            } else {
+                // another producer claimed this position first
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published elements into {@code target}, in offer order. Must only be
+     * called from the consumer thread.
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(List<? super E> target, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            target.add((E) slots[index]);
+            slots[index] = null;
+            sequences.set(index, position + slots.length);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
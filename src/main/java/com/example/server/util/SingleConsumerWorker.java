@@ -0,0 +1,147 @@
+package com.example.server.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A platform thread that consumes an {@link MpscRingBuffer}: any thread may {@link #offer} elements,
+ * and the worker hands them to the handler in batches of at most {@code batchSize}, in offer order.
+ * <p>
+ * An idle worker parks. It announces that before looking at the buffer once more, and a producer only
+ * unparks it while it is announced, so offers to a busy worker cost no unpark and an element offered
+ * while it goes idle is not left waiting for the park to time out. {@link #stop} lets the worker hand
+ * over everything offered so far. An element offered while it stops is handed over by the producer
+ * itself once the worker has finished, so no accepted element is left behind.
+ */
+@Slf4j
+public final class SingleConsumerWorker<E> {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final String name;
+    private final MpscRingBuffer<E> buffer;
+    private final int batchSize;
+    private final Consumer<List<E>> handler;
+
+    private volatile boolean running;
+    private volatile boolean idle;
+    // set by the worker once its loop is done; from then on the buffer is drained under this object's lock
+    private volatile boolean finished;
+    private volatile Thread thread;
+
+    public SingleConsumerWorker(String name, int capacity, int batchSize, Consumer<List<E>> handler) {
+        this.name = name;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.handler = handler;
+    }
+
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name(name).daemon().start(this::run);
+    }
+
+    /**
+     * Stops taking elements and waits up to ten seconds for the worker to hand over the ones it has.
+     */
+    public void stop() {
+        running = false;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                current.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Queues the element for the handler. Returns false, without queueing it, when the buffer is full
+     * or the worker is not running.
+     */
+    public boolean offer(E element) {
+        if (!running || !buffer.offer(element)) {
+            return false;
+        }
+        if (idle) {
+            LockSupport.unpark(thread);
+        }
+        if (!running) {
+            // the worker may have looked at the buffer for the last time before this element arrived
+            drainFinished();
+        }
+        return true;
+    }
+
+    /**
+     * Unparks the worker whether or not it is idle, for a producer about to wait for room.
+     */
+    public void wake() {
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Moves up to {@code max} more queued elements into {@code target}, for a handler that keeps
+     * collecting before it acts on its batch. Must only be called from the handler.
+     */
+    public int drainTo(List<? super E> target, int max) {
+        return buffer.drainTo(target, max);
+    }
+
+    public int size() {
+        return buffer.size();
+    }
+
+    public boolean isEmpty() {
+        return buffer.isEmpty();
+    }
+
+    private void run() {
+        List<E> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                idle = true;
+                // re-check after announcing idleness, so an element offered in between is not left waiting
+                if (running && buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+                continue;
+            }
+            handle(batch);
+        }
+        finished = true;
+        drainFinished();
+    }
+
+    private synchronized void drainFinished() {
+        if (!finished) {
+            return;
+        }
+        List<E> batch = new ArrayList<>();
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            handle(batch);
+        }
+    }
+
+    private void handle(List<E> batch) {
+        try {
+            handler.accept(batch);
+        } catch (RuntimeException e) {
+            log.error("{} failed to handle {} elements", name, batch.size(), e);
+        }
+        batch.clear();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.server.util;
+
+import com.example.server.model.data.ArchivedTransaction;
+import com.example.server.model.data.Transaction;
+import com.example.server.model.vo.CursorPageVO;
+import com.example.server.model.vo.OffsetPageVO;
+import com.example.server.model.vo.TransactionColumnsVO;
+import com.example.server.model.vo.TransactionSearchResultVO;
+import com.example.server.model.vo.TransactionVO;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Field-by-field copies between {@link Transaction}, {@link ArchivedTransaction}, {@link TransactionVO}
+ * and {@link TransactionSearchResultVO}, and search pages into {@link OffsetPageVO} and {@link TransactionColumnsVO}. Plain getter/setter calls replace
+ * {@code BeanUtils.copyProperties}, which introspects and invokes every accessor reflectively on
+ * each request. A field added to one of the classes has to be added here as well.
+ */
+public final class TransactionMapper {
+
+    private TransactionMapper() {
+    }
+
+    public static TransactionVO toVO(Transaction transaction) {
+        TransactionVO vo = new TransactionVO();
+        vo.setId(transaction.getId());
+        vo.setType(transaction.getType());
+        vo.setAmount(transaction.getAmount());
+        vo.setTransactionDate(transaction.getTransactionDate());
+        vo.setTransactionDescription(transaction.getTransactionDescription());
+        vo.setDebitAccount(transaction.getDebitAccount());
+        vo.setCreditAccount(transaction.getCreditAccount());
+        vo.setCurrency(transaction.getCurrency());
+        vo.setStatus(transaction.getStatus());
+        vo.setLastUpdated(transaction.getLastUpdated());
+        vo.setSubmittedBy(transaction.getSubmittedBy());
+        vo.setSubmittedAt(transaction.getSubmittedAt());
+        vo.setApprovedBy(transaction.getApprovedBy());
+        vo.setApprovedAt(transaction.getApprovedAt());
+        vo.setVersion(transaction.getVersion());
+        return vo;
+    }
+
+    public static TransactionVO toVO(ArchivedTransaction transaction) {
+        TransactionVO vo = new TransactionVO();
+        vo.setId(transaction.getId());
+        vo.setType(transaction.getType());
+        vo.setAmount(transaction.getAmount());
+        vo.setTransactionDate(transaction.getTransactionDate());
+        vo.setTransactionDescription(transaction.getTransactionDescription());
+        vo.setDebitAccount(transaction.getDebitAccount());
+        vo.setCreditAccount(transaction.getCreditAccount());
+        vo.setCurrency(transaction.getCurrency());
+        vo.setStatus(transaction.getStatus());
+        vo.setLastUpdated(transaction.getLastUpdated());
+        vo.setSubmittedBy(transaction.getSubmittedBy());
+        vo.setSubmittedAt(transaction.getSubmittedAt());
+        vo.setApprovedBy(transaction.getApprovedBy());
+        vo.setApprovedAt(transaction.getApprovedAt());
+        vo.setVersion(transaction.getVersion());
+        return vo;
+    }
+
+    public static Transaction toEntity(TransactionVO vo) {
+        Transaction transaction = new Transaction();
+        transaction.setId(vo.getId());
+        transaction.setType(vo.getType());
+        transaction.setAmount(vo.getAmount());
+        transaction.setTransactionDate(vo.getTransactionDate());
+        transaction.setTransactionDescription(vo.getTransactionDescription());
+        transaction.setDebitAccount(vo.getDebitAccount());
+        transaction.setCreditAccount(vo.getCreditAccount());
+        transaction.setCurrency(vo.getCurrency());
+        transaction.setStatus(vo.getStatus());
+        transaction.setLastUpdated(vo.getLastUpdated());
+        transaction.setSubmittedBy(vo.getSubmittedBy());
+        transaction.setSubmittedAt(vo.getSubmittedAt());
+        transaction.setApprovedBy(vo.getApprovedBy());
+        transaction.setApprovedAt(vo.getApprovedAt());
+        transaction.setVersion(vo.getVersion());
+        return transaction;
+    }
+
+    public static TransactionSearchResultVO toSearchResult(Transaction transaction) {
+        return new TransactionSearchResultVO(transaction.getId(), transaction.getType(), transaction.getAmount(),
+                transaction.getTransactionDate(), transaction.getTransactionDescription(),
+                transaction.getDebitAccount(), transaction.getCreditAccount(), transaction.getCurrency(),
+                transaction.getStatus(), transaction.getLastUpdated(), transaction.getSubmittedBy(),
+                transaction.getSubmittedAt(), transaction.getApprovedBy(), transaction.getApprovedAt(),
+                transaction.getVersion());
+    }
+
+    public static <T> OffsetPageVO<T> toOffsetPage(Page<T> page) {
+        return new OffsetPageVO<>(page.getContent(), page.getSize(), page.getNumber(), page.getTotalElements(),
+                page.getTotalPages());
+    }
+
+    public static TransactionColumnsVO toColumns(Page<TransactionSearchResultVO> page) {
+        return new TransactionColumnsVO(page.getNumberOfElements(), columns(page.getContent()), page.getSize(),
+                page.getNumber(), page.getTotalElements(), page.getTotalPages(), null, null);
+    }
+
+    public static TransactionColumnsVO toColumns(CursorPageVO<TransactionSearchResultVO> page) {
+        return new TransactionColumnsVO(page.getContent().size(), columns(page.getContent()), page.getSize(),
+                null, null, null, page.isHasNext(), page.getNextCursor());
+    }
+
+    private static Map<String, List<Object>> columns(List<TransactionSearchResultVO> rows) {
+        Map<String, List<Object>> columns = new LinkedHashMap<>();
+        column(columns, "id", rows, TransactionSearchResultVO::getId);
+        column(columns, "type", rows, TransactionSearchResultVO::getType);
+        column(columns, "amount", rows, TransactionSearchResultVO::getAmount);
+        column(columns, "transactionDate", rows, TransactionSearchResultVO::getTransactionDate);
+        column(columns, "transactionDescription", rows, TransactionSearchResultVO::getTransactionDescription);
+        column(columns, "debitAccount", rows, TransactionSearchResultVO::getDebitAccount);
+        column(columns, "creditAccount", rows, TransactionSearchResultVO::getCreditAccount);
+        column(columns, "currency", rows, TransactionSearchResultVO::getCurrency);
+        column(columns, "status", rows, TransactionSearchResultVO::getStatus);
+        column(columns, "lastUpdated", rows, TransactionSearchResultVO::getLastUpdated);
+        column(columns, "submittedBy", rows, TransactionSearchResultVO::getSubmittedBy);
+        column(columns, "submittedAt", rows, TransactionSearchResultVO::getSubmittedAt);
+        column(columns, "approvedBy", rows, TransactionSearchResultVO::getApprovedBy);
+        column(columns, "approvedAt", rows, TransactionSearchResultVO::getApprovedAt);
+        column(columns, "version", rows, TransactionSearchResultVO::getVersion);
+        return columns;
+    }
+
+    // nulls stay in place so that every array lines up with the rows; an all-null column is left out
+    private static void column(Map<String, List<Object>> columns, String name, List<TransactionSearchResultVO> rows,
+                               Function<TransactionSearchResultVO, Object> getter) {
+        List<Object> values = new ArrayList<>(rows.size());
+        boolean present = false;
+        for (TransactionSearchResultVO row : rows) {
+            Object value = getter.apply(row);
+            present |= value != null;
+            values.add(value);
+        }
+        if (present) {
+            columns.put(name, values);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 
 INSERT INTO transactions (
+    id,
     type,
     amount,
     transaction_date,
@@ -14,6 +15,7 @@ INSERT INTO transactions (
     approved_by,
     approved_at
 ) VALUES (
+    1,
     'PAYMENT',
     1000.00,
     '2024-06-01 00:00:00.000000',
@@ -30,6 +32,7 @@ INSERT INTO transactions (
     );
 
 INSERT INTO transactions (
+    id,
     type,
     amount,
     transaction_date,
@@ -44,6 +47,7 @@ INSERT INTO transactions (
     approved_by,
     approved_at
 ) VALUES (
+         2,
          'PAYMENT',
          1000.00,
          '2024-06-02 00:00:00.000000',
@@ -60,6 +64,7 @@ INSERT INTO transactions (
     );
 
 INSERT INTO transactions (
+    id,
     type,
     amount,
     transaction_date,
@@ -74,6 +79,7 @@ INSERT INTO transactions (
     approved_by,
     approved_at
 ) VALUES (
+             3,
              'PAYMENT',
              1000.00,
              '2024-06-03 00:00:00.000000',
@@ -90,6 +96,7 @@ INSERT INTO transactions (
          );
 
 INSERT INTO transactions (
+    id,
     type,
     amount,
     transaction_date,
@@ -104,6 +111,7 @@ INSERT INTO transactions (
     approved_by,
     approved_at
 ) VALUES (
+             4,
              'PAYMENT',
              1000.00,
              '2024-06-04 00:00:00.000000',
@@ -120,6 +128,7 @@ INSERT INTO transactions (
          );
 
 INSERT INTO transactions (
+    id,
     type,
     amount,
     transaction_date,
@@ -134,6 +143,7 @@ INSERT INTO transactions (
     approved_by,
     approved_at
 ) VALUES (
+             5,
              'PAYMENT',
              1000.00,
              '2024-06-03 00:00:00.000000',
@@ -150,6 +160,7 @@ INSERT INTO transactions (
          );
 
 INSERT INTO transactions (
+    id,
     type,
     amount,
     transaction_date,
@@ -162,6 +173,7 @@ INSERT INTO transactions (
     submitted_by,
     submitted_at
 ) VALUES (
+             6,
              'PAYMENT',
              1000.00,
              '2024-06-06 00:00:00.000000',
@@ -1,6 +1,12 @@
 DROP TABLE IF EXISTS transactions;
+DROP TABLE IF EXISTS transactions_archive;
+DROP TABLE IF EXISTS transaction_audit;
+DROP SEQUENCE IF EXISTS transactions_seq;
+-- Hibernate allocates ids in blocks of 50 (pooled-lo), which allows JDBC insert batching.
+-- data.sql seeds ids 1-6 explicitly, so the sequence starts above them.
+CREATE SEQUENCE transactions_seq START WITH 51 INCREMENT BY 50;
 CREATE TABLE transactions (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR transactions_seq PRIMARY KEY,
     type VARCHAR(50),
     amount DECIMAL(19, 2) NOT NULL,
     transaction_date DATETIME NOT NULL,
@@ -13,7 +19,56 @@ CREATE TABLE transactions (
     submitted_by VARCHAR(50),
     submitted_at DATETIME,
     approved_by VARCHAR(50),
-    approved_at DATETIME
+    approved_at DATETIME,
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
+-- Secondary indexes backing the filter combinations of TransactionService.searchTransaction.
+-- Keep in sync with @Table(indexes = ...) on Transaction, which TransactionSearchPlanner reads.
+CREATE INDEX idx_transactions_status_date ON transactions (status, transaction_date);
+CREATE INDEX idx_transactions_submitted_by_status ON transactions (submitted_by, status);
+CREATE INDEX idx_transactions_approved_by ON transactions (approved_by);
+CREATE INDEX idx_transactions_type_date ON transactions (type, transaction_date);
+CREATE INDEX idx_transactions_date ON transactions (transaction_date);
+-- one per side, so an account filter on either side runs as a union of two index lookups
+CREATE INDEX idx_transactions_debit_account_amount ON transactions (debit_account, amount);
+CREATE INDEX idx_transactions_credit_account_amount ON transactions (credit_account, amount);
 
+-- Cold tier: rows in a final status, moved out of transactions by TransactionArchiver. Same columns and
+-- search indexes; ids keep their original values and are never reused, so both tiers share one id space.
+CREATE TABLE transactions_archive (
+    id BIGINT PRIMARY KEY,
+    type VARCHAR(50),
+    amount DECIMAL(19, 2) NOT NULL,
+    transaction_date DATETIME NOT NULL,
+    transaction_description VARCHAR(255) NOT NULL,
+    debit_account VARCHAR(50) NOT NULL,
+    credit_account VARCHAR(50) NOT NULL,
+    status VARCHAR(50),
+    last_updated DATETIME,
+    currency VARCHAR(10),
+    submitted_by VARCHAR(50),
+    submitted_at DATETIME,
+    approved_by VARCHAR(50),
+    approved_at DATETIME,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+CREATE INDEX idx_transactions_archive_status_date ON transactions_archive (status, transaction_date);
+CREATE INDEX idx_transactions_archive_submitted_by_status ON transactions_archive (submitted_by, status);
+CREATE INDEX idx_transactions_archive_approved_by ON transactions_archive (approved_by);
+CREATE INDEX idx_transactions_archive_type_date ON transactions_archive (type, transaction_date);
+CREATE INDEX idx_transactions_archive_date ON transactions_archive (transaction_date);
+CREATE INDEX idx_transactions_archive_debit_account_amount ON transactions_archive (debit_account, amount);
+CREATE INDEX idx_transactions_archive_credit_account_amount ON transactions_archive (credit_account, amount);
+
+-- Append-only audit trail of status transitions, written in batches by TransactionAuditLog.
+CREATE TABLE transaction_audit (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    transaction_id BIGINT NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    from_status VARCHAR(50),
+    to_status VARCHAR(50),
+    user_id VARCHAR(50),
+    occurred_at DATETIME NOT NULL
+);
+CREATE INDEX idx_transaction_audit_transaction ON transaction_audit (transaction_id, id);
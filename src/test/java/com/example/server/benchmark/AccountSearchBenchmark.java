@@ -0,0 +1,148 @@
+package com.example.server.benchmark;
+
+import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Latency of account and amount filters in {@link TransactionService#searchTransaction} (page + count
+ * query) with and without the (account, amount) indexes, and of the either-side account filter as
+ * the union the service runs versus a plain OR. Run with
+ * {@code mvn test -Pbenchmark -Dtest=AccountSearchBenchmark -Dbenchmark.rows=1000000}.
+ * <p>
+ * Every iteration uses a different account so that H2 cannot hand back the previous result.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:account-search-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "transaction.search-cache.maximum-rows=0"
+})
+class AccountSearchBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+    private static final BigDecimal MIN_AMOUNT = new BigDecimal("5000");
+    private static final List<String> ACCOUNT_INDEXES = List.of(
+            "idx_transactions_debit_account_amount", "idx_transactions_credit_account_amount");
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void accountSearchLatency() {
+        BenchmarkData.seed(jdbcTemplate, ROWS);
+        Map<String, IntFunction<TransactionSearchVO>> scenarios = scenarios();
+
+        Map<String, Double> indexed = measure(scenarios);
+        double orScan = measureOr();
+        List<String> indexDdl = dropAccountIndexes();
+        Map<String, Double> unindexed = measure(scenarios);
+        indexDdl.forEach(jdbcTemplate::execute);
+
+        System.out.printf("%nAccount searches at %,d rows (median of %d, ms)%n", ROWS, ITERATIONS);
+        System.out.printf("%-28s %12s %12s %9s%n", "scenario", "no index", "indexed", "speedup");
+        scenarios.keySet().forEach(name -> System.out.printf("%-28s %12.2f %12.2f %8.1fx%n",
+                name, unindexed.get(name), indexed.get(name), unindexed.get(name) / indexed.get(name)));
+        System.out.printf("%-28s %12.2f %12.2f %8.1fx%n", "account >= 5000, OR vs UNION",
+                orScan, indexed.get("account + amount >= 5000"), orScan / indexed.get("account + amount >= 5000"));
+    }
+
+    private Map<String, IntFunction<TransactionSearchVO>> scenarios() {
+        Map<String, IntFunction<TransactionSearchVO>> scenarios = new LinkedHashMap<>();
+        scenarios.put("account (either side)", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setAccount(account(i));
+            return vo;
+        });
+        scenarios.put("account + amount >= 5000", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setAccount(account(i));
+            vo.setMinAmount(MIN_AMOUNT);
+            return vo;
+        });
+        scenarios.put("debitAccount + amount range", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setDebitAccount(account(i));
+            vo.setMinAmount(new BigDecimal("1000"));
+            vo.setMaxAmount(new BigDecimal("8000"));
+            return vo;
+        });
+        scenarios.put("creditAccount + currency", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setCreditAccount(account(i));
+            vo.setCurrency("CNY");
+            return vo;
+        });
+        return scenarios;
+    }
+
+    private static String account(int i) {
+        return String.format("%06d", 1_000 + 37 * i);
+    }
+
+    private Map<String, Double> measure(Map<String, IntFunction<TransactionSearchVO>> scenarios) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        scenarios.forEach((name, scenario) -> {
+            for (int i = 0; i < WARMUP; i++) {
+                transactionService.searchTransaction(scenario.apply(ITERATIONS + i));
+            }
+            double[] samples = new double[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                TransactionSearchVO vo = scenario.apply(i);
+                long start = System.nanoTime();
+                transactionService.searchTransaction(vo);
+                samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+            Arrays.sort(samples);
+            result.put(name, samples[ITERATIONS / 2]);
+        });
+        return result;
+    }
+
+    // the same page and count as the union search, written as the OR the union replaces
+    private double measureOr() {
+        String where = " FROM transactions WHERE (debit_account = ? OR credit_account = ?) AND amount >= ?";
+        for (int i = 0; i < WARMUP; i++) {
+            runOr(where, account(ITERATIONS + i));
+        }
+        double[] samples = new double[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            runOr(where, account(i));
+            samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private void runOr(String where, String account) {
+        jdbcTemplate.queryForList("SELECT *" + where + " ORDER BY id DESC LIMIT 50", account, account, MIN_AMOUNT);
+        jdbcTemplate.queryForObject("SELECT COUNT(*)" + where, Long.class, account, account, MIN_AMOUNT);
+    }
+
+    private List<String> dropAccountIndexes() {
+        List<String> ddl = new ArrayList<>();
+        for (String index : ACCOUNT_INDEXES) {
+            String columns = String.join(", ", jdbcTemplate.queryForList(
+                    "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                            "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION",
+                    String.class, index.toUpperCase(Locale.ROOT)));
+            ddl.add("CREATE INDEX " + index + " ON transactions (" + columns + ")");
+            jdbcTemplate.execute("DROP INDEX " + index);
+        }
+        return ddl;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.server.benchmark;
+
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.service.TransactionService;
+import com.example.server.util.Constants;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Insert throughput of one createTransaction call per row versus createTransactions with JDBC batching.
+ * Run with {@code mvn test -Pbenchmark -Dtest=BatchCreateBenchmark -Dbenchmark.rows=20000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batch-create-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class BatchCreateBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int BATCH_SIZE = 1_000;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void singleVersusBatchCreateThroughput() {
+        // warm up both paths before measuring
+        singleCreate(2_000);
+        batchCreate(2_000);
+
+        double single = singleCreate(ROWS);
+        double batch = batchCreate(ROWS);
+
+        System.out.printf("%ncreate throughput for %,d rows (rows/s)%n", ROWS);
+        System.out.printf("%-28s %12.0f%n", "createTransaction x N", single);
+        System.out.printf("%-28s %12.0f  (%.1fx)%n", "createTransactions/" + BATCH_SIZE, batch, batch / single);
+    }
+
+    private double singleCreate(int rows) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rows; i++) {
+            transactionService.createTransaction(transaction(i), Constants.TX_CONTEXT_CREATE, "bench");
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private double batchCreate(int rows) {
+        long start = System.nanoTime();
+        for (int offset = 0; offset < rows; offset += BATCH_SIZE) {
+            List<TransactionVO> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = offset; i < Math.min(rows, offset + BATCH_SIZE); i++) {
+                batch.add(transaction(i));
+            }
+            transactionService.createTransactions(batch, Constants.TX_CONTEXT_CREATE, "bench");
+        }
+        return rows / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static TransactionVO transaction(int i) {
+        TransactionVO vo = new TransactionVO();
+        vo.setType(Constants.TX_TYPE_PAYMENT);
+        vo.setAmount(BigDecimal.valueOf(i % 100_000, 2));
+        vo.setTransactionDate(LocalDateTime.now());
+        vo.setTransactionDescription("Benchmark transaction " + i);
+        vo.setDebitAccount("1001");
+        vo.setCreditAccount("2001");
+        vo.setCurrency(Constants.DEFAULT_CURRENCY);
+        return vo;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.server.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the {@code transactions} table with a deterministic, production-like distribution:
+ * 1,000 submitters, 200 approvers, two types, five statuses and two years of transaction dates.
+ */
+public final class BenchmarkData {
+
+    public static final String[] STATUSES = {"SUBMITTED", "APPROVED", "APPROVED", "REJECTED", "CANCELLED", "COMPLETED"};
+    public static final String[] TYPES = {"PAYMENT", "PAYMENT", "PAYMENT", "LOAN"};
+    public static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    private static final int BATCH = 5_000;
+
+    private BenchmarkData() {
+    }
+
+    public static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.update("DELETE FROM transactions");
+        SplittableRandom random = new SplittableRandom(42);
+        String sql = "INSERT INTO transactions (type, amount, transaction_date, transaction_description, " +
+                "debit_account, credit_account, status, last_updated, currency, submitted_by, submitted_at, " +
+                "approved_by, approved_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < rows; i++) {
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            boolean decided = !"SUBMITTED".equals(status);
+            Timestamp date = Timestamp.valueOf(EPOCH.plusMinutes(random.nextInt(730 * 24 * 60)));
+            batch.add(new Object[]{
+                    TYPES[random.nextInt(TYPES.length)],
+                    BigDecimal.valueOf(random.nextInt(1_000_000), 2),
+                    date,
+                    "Invoice " + i + " for vendor " + random.nextInt(5_000),
+                    String.format("%06d", random.nextInt(100_000)),
+                    String.format("%06d", random.nextInt(100_000)),
+                    status,
+                    date,
+                    random.nextInt(10) == 0 ? "USD" : "CNY",
+                    String.format("user%04d", random.nextInt(1_000)),
+                    date,
+                    decided ? String.format("admin%03d", random.nextInt(200)) : null,
+                    decided ? date : null
+            });
+            if (batch.size() == BATCH) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
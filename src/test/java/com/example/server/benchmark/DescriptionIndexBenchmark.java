@@ -0,0 +1,115 @@
+package com.example.server.benchmark;
+
+import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.service.TransactionDescriptionIndex;
+import com.example.server.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * Memory footprint of the trigram description index and description search latency with and
+ * without it. Run with {@code mvn test -Pbenchmark -Dtest=DescriptionIndexBenchmark -Dbenchmark.rows=1000000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:description-index-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "transaction.search-cache.maximum-rows=0"
+})
+class DescriptionIndexBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private TransactionDescriptionIndex descriptionIndex;
+
+    @Test
+    void descriptionSearchWithAndWithoutIndex() {
+        BenchmarkData.seed(jdbcTemplate, ROWS);
+        long heapBefore = liveHeap();
+        long start = System.nanoTime();
+        descriptionIndex.rebuild();
+        double rebuildMs = (System.nanoTime() - start) / 1_000_000.0;
+        long heapAfter = liveHeap();
+
+        Map<String, IntFunction<TransactionSearchVO>> scenarios = scenarios();
+        Map<String, Double> indexed = measure(scenarios);
+        doReturn(null).when(descriptionIndex).candidates(anyString());
+        Map<String, Double> like = measure(scenarios);
+        doCallRealMethod().when(descriptionIndex).candidates(anyString());
+
+        System.out.printf("%ndescription index at %,d rows: rebuild %.0f ms, bitmaps %.1f MB, live heap +%.1f MB%n",
+                ROWS, rebuildMs, descriptionIndex.getSizeInBytes() / (1024.0 * 1024.0),
+                (heapAfter - heapBefore) / (1024.0 * 1024.0));
+        System.out.printf("%nsearchTransaction latency (median of %d, ms)%n", ITERATIONS);
+        System.out.printf("%-28s %12s %12s %9s%n", "scenario", "LIKE scan", "indexed", "speedup");
+        scenarios.keySet().forEach(name -> System.out.printf("%-28s %12.2f %12.2f %8.1fx%n",
+                name, like.get(name), indexed.get(name), like.get(name) / indexed.get(name)));
+    }
+
+    private Map<String, IntFunction<TransactionSearchVO>> scenarios() {
+        Map<String, IntFunction<TransactionSearchVO>> scenarios = new LinkedHashMap<>();
+        scenarios.put("single invoice", i -> description("Invoice " + (ROWS / 3 + 7919 * i) + " for"));
+        scenarios.put("vendor (~200 rows)", i -> description("vendor " + (1000 + i * 13)));
+        scenarios.put("vendor prefix (~2,200 rows)", i -> description("vendor " + (100 + i * 13)));
+        scenarios.put("no match", i -> description("Receipt " + i));
+        scenarios.put("vendor + status", i -> {
+            TransactionSearchVO vo = description("vendor " + (1000 + i * 17));
+            vo.setStatus("SUBMITTED");
+            return vo;
+        });
+        return scenarios;
+    }
+
+    private TransactionSearchVO description(String term) {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setTransactionDescription(term);
+        return vo;
+    }
+
+    private Map<String, Double> measure(Map<String, IntFunction<TransactionSearchVO>> scenarios) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        scenarios.forEach((name, scenario) -> {
+            for (int i = 0; i < WARMUP; i++) {
+                transactionService.searchTransaction(scenario.apply(ITERATIONS + i));
+            }
+            double[] samples = new double[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                TransactionSearchVO vo = scenario.apply(i);
+                long start = System.nanoTime();
+                transactionService.searchTransaction(vo);
+                samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+            Arrays.sort(samples);
+            result.put(name, samples[ITERATIONS / 2]);
+        });
+        return result;
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.server.benchmark;
+
+import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.service.TransactionExportService;
+import com.example.server.util.Constants;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+
+/**
+ * Throughput and live heap growth of the streaming export for a small and a ten times larger table.
+ * A flat heap column is the expected result. Run with
+ * {@code mvn test -Pbenchmark -Dtest=ExportBenchmark -Dbenchmark.rows=1000000}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class ExportBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int SAMPLES = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Test
+    void exportHeapStaysFlat() {
+        System.out.printf("%n%-12s %-8s %12s %14s %16s%n", "rows", "format", "exported", "rows/s", "live heap (MB)");
+        for (int rows : new int[]{ROWS / 10, ROWS}) {
+            BenchmarkData.seed(jdbcTemplate, rows);
+            for (String format : new String[]{Constants.EXPORT_FORMAT_NDJSON, Constants.EXPORT_FORMAT_CSV}) {
+                export(format);
+                measure(rows, format);
+            }
+        }
+    }
+
+    private void measure(int rows, String format) {
+        long start = System.nanoTime();
+        long exported = export(format);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // separate run: a full GC every rows / SAMPLES rows shows the heap actually retained mid-export
+        long baseline = liveHeap();
+        LiveHeapSampler sampler = new LiveHeapSampler(Math.max(1, rows / SAMPLES));
+        transactionExportService.exportTransactions(new TransactionSearchVO(), format, sampler);
+
+        System.out.printf("%-12s %-8s %,12d %,14.0f %16.1f%n", String.format("%,d", rows), format, exported,
+                exported / seconds, Math.max(0, sampler.peak - baseline) / (1024.0 * 1024.0));
+    }
+
+    private long export(String format) {
+        return transactionExportService.exportTransactions(new TransactionSearchVO(), format, OutputStream.nullOutputStream());
+    }
+
+    private static long liveHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final class LiveHeapSampler extends OutputStream {
+
+        private final long sampleEvery;
+        private long lines;
+        private long peak;
+
+        private LiveHeapSampler(long sampleEvery) {
+            this.sampleEvery = sampleEvery;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % sampleEvery == 0) {
+                peak = Math.max(peak, liveHeap());
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
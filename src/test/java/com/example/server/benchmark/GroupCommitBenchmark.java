@@ -0,0 +1,139 @@
+package com.example.server.benchmark;
+
+import com.example.server.ServerApplication;
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.service.TransactionService;
+import com.example.server.util.Constants;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput and latency of concurrent createTransaction calls, each committing its own row versus
+ * group commit, at several numbers of concurrent callers. Callers are virtual threads calling the
+ * service directly, each sending its next create as soon as the previous one returns.
+ * Run with {@code mvn test -Pbenchmark -Dtest=GroupCommitBenchmark}; {@code -Dbenchmark.storage=file}
+ * runs against the file-backed store, where a commit costs more.
+ */
+@Tag("benchmark")
+class GroupCommitBenchmark {
+
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 10);
+    private static final int[] CALLERS = Arrays.stream(System.getProperty("benchmark.clients", "1,16,200").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+    private static final boolean FILE_STORAGE = "file".equals(System.getProperty("benchmark.storage"));
+
+    @Test
+    void perRowVersusGroupCommit() throws Exception {
+        System.out.printf("%nconcurrent createTransaction, %d s per run, %s storage%n", SECONDS, FILE_STORAGE ? "file" : "memory");
+        System.out.printf("%-14s %8s %10s %9s %9s %9s %8s%n", "mode", "callers", "creates/s", "p50 ms", "p99 ms", "max ms", "errors");
+        run("per-row", false);
+        run("group-commit", true);
+    }
+
+    private void run(String mode, boolean groupCommit) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ServerApplication.class);
+        String url = "--spring.datasource.url=jdbc:h2:mem:group-commit-" + groupCommit + ";DB_CLOSE_DELAY=-1";
+        if (FILE_STORAGE) {
+            builder.profiles("file");
+            url = "--transaction.storage.path=" + System.getProperty("java.io.tmpdir") + "/group-commit-" + groupCommit
+                    + "-" + System.nanoTime();
+        }
+        try (ConfigurableApplicationContext context = builder.run(
+                "--server.port=0",
+                url,
+                "--transaction.group-commit.enabled=" + groupCommit,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            TransactionService service = context.getBean(TransactionService.class);
+
+            // warm up the JIT and the connection pool before measuring
+            load(service, 16, 5);
+            for (int callers : CALLERS) {
+                Result result = load(service, callers, SECONDS);
+                System.out.printf("%-14s %8d %10.0f %9.2f %9.2f %9.2f %8d%n", mode, callers,
+                        result.requests / (double) SECONDS, result.percentile(0.50), result.percentile(0.99),
+                        result.percentile(1.0), result.errors);
+            }
+        }
+    }
+
+    private Result load(TransactionService service, int callers, int seconds) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>(callers);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < callers; c++) {
+                long[] samples = new long[1 << 18];
+                latencies.add(samples);
+                executor.submit(() -> {
+                    int n = 1;
+                    while (System.nanoTime() < deadline && n < samples.length) {
+                        long start = System.nanoTime();
+                        try {
+                            service.createTransaction(transaction(n), Constants.TX_CONTEXT_CREATE, "load");
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                        samples[n++] = System.nanoTime() - start;
+                    }
+                    samples[0] = n - 1;
+                    return null;
+                });
+            }
+        }
+        return new Result(latencies, errors.get());
+    }
+
+    private static TransactionVO transaction(int n) {
+        TransactionVO vo = new TransactionVO();
+        vo.setType(Constants.TX_TYPE_PAYMENT);
+        vo.setAmount(BigDecimal.valueOf(n % 100_000, 2));
+        vo.setTransactionDate(LocalDateTime.now());
+        vo.setTransactionDescription("Group commit invoice " + n);
+        vo.setDebitAccount("100001");
+        vo.setCreditAccount("200001");
+        vo.setCurrency(Constants.DEFAULT_CURRENCY);
+        return vo;
+    }
+
+    private static final class Result {
+        private final long[] sorted;
+        private final long requests;
+        private final long errors;
+
+        Result(List<long[]> latencies, long errors) {
+            int total = 0;
+            for (long[] samples : latencies) {
+                total += (int) samples[0];
+            }
+            sorted = new long[total];
+            int offset = 0;
+            for (long[] samples : latencies) {
+                System.arraycopy(samples, 1, sorted, offset, (int) samples[0]);
+                offset += (int) samples[0];
+            }
+            Arrays.sort(sorted);
+            this.requests = total;
+            this.errors = errors;
+        }
+
+        double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.server.benchmark;
+
+import com.example.server.ServerApplication;
+import com.example.server.service.TransactionDescriptionIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load against the {@code TransactionController} endpoints in a production-like mix of
+ * create, get, search, approve, reject, cancel and delete. Requests arrive as a Poisson process at a fixed
+ * average rate whether or not earlier ones have returned, and each one is sent from its own virtual thread.
+ * Run with {@code mvn test -Pbenchmark -Dtest=MixedWorkloadLoadBenchmark -Dbenchmark.rates=50,100,200}.
+ * <p>
+ * Latency is taken from the moment a request was scheduled to start, not from the moment it was sent, so
+ * time a request spends waiting behind a stalled server or a late load generator counts against it instead
+ * of silently disappearing (coordinated omission). The {@code service p99} column is measured from the send
+ * and shows how much a closed-loop client would under-report.
+ * <p>
+ * Other properties: {@code benchmark.rows} (seeded rows), {@code benchmark.seconds} (per rate),
+ * {@code benchmark.warmup} (seconds at the first rate before measuring), {@code benchmark.virtual} (server
+ * request threads) and {@code benchmark.mix} (relative weights, e.g. {@code get:45,search:25,create:15}).
+ * Approvals, rejections and cancellations take SUBMITTED rows, preferring the ones this run created, and
+ * deletes only remove rows this run created, so gets of seeded rows never miss.
+ */
+@Tag("benchmark")
+class MixedWorkloadLoadBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 30);
+    private static final int WARMUP = Integer.getInteger("benchmark.warmup", 15);
+    private static final boolean VIRTUAL = Boolean.parseBoolean(System.getProperty("benchmark.virtual", "true"));
+    private static final int[] RATES = Arrays.stream(System.getProperty("benchmark.rates", "50,100,200").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+    private static final String MIX = System.getProperty("benchmark.mix",
+            "get:45,search:25,create:15,approve:7,reject:3,cancel:2,delete:3");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] SEARCH_STATUSES = {"SUBMITTED", "APPROVED", "REJECTED", "CANCELLED", "COMPLETED"};
+
+    private enum Endpoint { CREATE, GET, SEARCH, APPROVE, REJECT, CANCEL, DELETE }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Endpoint[] mix = parseMix(MIX);
+
+    private String base;
+    private long[] seededIds;
+    // SUBMITTED rows: seeded ones, and ones this run created; decided rows this run created may be deleted
+    private final Queue<Long> seededSubmitted = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> deletable = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void mixedWorkloadAtFixedArrivalRates() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + VIRTUAL,
+                "--spring.datasource.url=jdbc:h2:mem:mixed-load;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            BenchmarkData.seed(jdbcTemplate, ROWS);
+            context.getBean(TransactionDescriptionIndex.class).rebuild();
+            seededIds = jdbcTemplate.queryForList("SELECT id FROM transactions", Long.class)
+                    .stream().mapToLong(Long::longValue).toArray();
+            List<Long> submitted = jdbcTemplate.queryForList(
+                    "SELECT id FROM transactions WHERE status = 'SUBMITTED'", Long.class);
+            Collections.shuffle(submitted, new Random(42));
+            seededSubmitted.addAll(submitted);
+            base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/transaction";
+
+            System.out.printf("%nopen-model mixed load, %,d rows, %s request threads, mix %s%n",
+                    ROWS, VIRTUAL ? "virtual" : "platform", MIX);
+            try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+                // warm up the JIT, the connection pools and the caches before measuring
+                load(http, RATES[0], WARMUP);
+                for (int rate : RATES) {
+                    load(http, rate, SECONDS).print(rate, SECONDS);
+                }
+            }
+        }
+    }
+
+    private Stats load(HttpClient http, int rate, int seconds) {
+        Stats stats = new Stats();
+        SplittableRandom random = new SplittableRandom(rate);
+        double meanGap = TimeUnit.SECONDS.toNanos(1) / (double) rate;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduled = start; scheduled < end;
+                 scheduled += (long) (-Math.log(1 - random.nextDouble()) * meanGap)) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // a late wake-up does not move the schedule; the delay is charged to the request
+                Endpoint endpoint = mix[random.nextInt(mix.length)];
+                long intended = scheduled;
+                SplittableRandom requestRandom = random.split();
+                executor.execute(() -> send(http, endpoint, intended, requestRandom, stats));
+            }
+        }
+        stats.elapsed = System.nanoTime() - start;
+        return stats;
+    }
+
+    private void send(HttpClient http, Endpoint endpoint, long intended, SplittableRandom random, Stats stats) {
+        Long target = null;
+        HttpRequest request;
+        switch (endpoint) {
+            case CREATE -> request = post("/create?userId=load", createBody(random));
+            case GET -> request = get("/" + seededIds[random.nextInt(seededIds.length)] + "?userId=load");
+            case SEARCH -> request = post("/search", searchBody(random));
+            case APPROVE, REJECT, CANCEL -> {
+                target = created.poll();
+                boolean fresh = target != null;
+                if (!fresh) {
+                    target = seededSubmitted.poll();
+                }
+                if (target == null) {
+                    stats.skipped(endpoint);
+                    return;
+                }
+                request = post("/" + endpoint.name().toLowerCase(Locale.ROOT) + "?userId=approver", "{\"id\":" + target + "}");
+                target = fresh ? target : null;
+            }
+            case DELETE -> {
+                target = deletable.poll();
+                if (target == null) {
+                    target = created.poll();
+                }
+                if (target == null) {
+                    stats.skipped(endpoint);
+                    return;
+                }
+                request = HttpRequest.newBuilder(URI.create(base + "/" + target + "?userId=load"))
+                        .timeout(REQUEST_TIMEOUT).DELETE().build();
+            }
+            default -> throw new IllegalStateException(endpoint.name());
+        }
+
+        long sent = System.nanoTime();
+        boolean ok = false;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            String body = response.body();
+            ok = response.statusCode() == 200
+                    && (endpoint == Endpoint.SEARCH ? body.contains("\"content\"") : body.startsWith("{\"code\":200"));
+            if (ok && endpoint == Endpoint.CREATE) {
+                created.add(objectMapper.readTree(body).path("data").path("id").asLong());
+            } else if (ok && target != null && endpoint != Endpoint.DELETE) {
+                deletable.add(target);
+            }
+        } catch (IOException e) {
+            // timeouts and refused connections count as errors with the latency they took
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long done = System.nanoTime();
+        stats.record(endpoint, done - intended, done - sent, ok);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(base + path)).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static String createBody(SplittableRandom random) {
+        return "{\"type\":\"PAYMENT\",\"amount\":" + random.nextInt(1, 100_000) + ".00,"
+                + "\"transactionDate\":\"2024-05-01T10:00:00\",\"transactionDescription\":\"Load test invoice "
+                + random.nextInt(1_000_000) + "\",\"debitAccount\":\"" + String.format("%06d", random.nextInt(100_000))
+                + "\",\"creditAccount\":\"" + String.format("%06d", random.nextInt(100_000)) + "\",\"currency\":\"CNY\"}";
+    }
+
+    private static String searchBody(SplittableRandom random) {
+        int month = random.nextInt(24);
+        return "{\"status\":\"" + SEARCH_STATUSES[random.nextInt(SEARCH_STATUSES.length)] + "\","
+                + "\"startDate\":\"" + BenchmarkData.EPOCH.plusMonths(month) + "\","
+                + "\"endDate\":\"" + BenchmarkData.EPOCH.plusMonths(month + 1) + "\",\"page\":0,\"pageSize\":20}";
+    }
+
+    // one slot per unit of weight, so picking an endpoint is a single random index
+    private static Endpoint[] parseMix(String mix) {
+        List<Endpoint> slots = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            Endpoint endpoint = Endpoint.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+            slots.addAll(Collections.nCopies(Integer.parseInt(parts[1].trim()), endpoint));
+        }
+        return slots.toArray(Endpoint[]::new);
+    }
+
+    /**
+     * Latency histograms in microseconds per endpoint, from the scheduled start (corrected) and from the
+     * send (service time), plus error and skip counts.
+     */
+    private static final class Stats {
+
+        private final Map<Endpoint, Recorder> corrected = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, Recorder> service = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, LongAdder> skipped = new EnumMap<>(Endpoint.class);
+        private long elapsed;
+
+        Stats() {
+            for (Endpoint endpoint : Endpoint.values()) {
+                corrected.put(endpoint, new Recorder(3));
+                service.put(endpoint, new Recorder(3));
+                errors.put(endpoint, new LongAdder());
+                skipped.put(endpoint, new LongAdder());
+            }
+        }
+
+        void record(Endpoint endpoint, long correctedNanos, long serviceNanos, boolean ok) {
+            corrected.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(correctedNanos));
+            service.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(serviceNanos));
+            if (!ok) {
+                errors.get(endpoint).increment();
+            }
+        }
+
+        void skipped(Endpoint endpoint) {
+            skipped.get(endpoint).increment();
+        }
+
+        void print(int rate, int seconds) {
+            double elapsedSeconds = elapsed / 1e9;
+            System.out.printf("%ntarget %d req/s for %d s%n", rate, seconds);
+            System.out.printf("%-8s %8s %8s %8s %8s %9s %9s %9s %9s %13s%n", "endpoint", "count", "req/s",
+                    "errors", "skipped", "p50 ms", "p99 ms", "p999 ms", "max ms", "service p99");
+            Histogram totalCorrected = new Histogram(3);
+            Histogram totalService = new Histogram(3);
+            long totalErrors = 0;
+            long totalSkipped = 0;
+            for (Endpoint endpoint : Endpoint.values()) {
+                Histogram latency = corrected.get(endpoint).getIntervalHistogram();
+                Histogram serviceTime = service.get(endpoint).getIntervalHistogram();
+                long endpointErrors = errors.get(endpoint).sum();
+                long endpointSkipped = skipped.get(endpoint).sum();
+                totalCorrected.add(latency);
+                totalService.add(serviceTime);
+                totalErrors += endpointErrors;
+                totalSkipped += endpointSkipped;
+                row(endpoint.name().toLowerCase(Locale.ROOT), latency, serviceTime, endpointErrors, endpointSkipped,
+                        elapsedSeconds);
+            }
+            row("total", totalCorrected, totalService, totalErrors, totalSkipped, elapsedSeconds);
+        }
+
+        private static void row(String name, Histogram latency, Histogram serviceTime, long errors, long skipped,
+                                double elapsedSeconds) {
+            long count = latency.getTotalCount();
+            System.out.printf("%-8s %8d %8.1f %7.2f%% %8d %9.1f %9.1f %9.1f %9.1f %13.1f%n", name, count,
+                    count / elapsedSeconds, count == 0 ? 0 : 100.0 * errors / count, skipped,
+                    latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(99) / 1e3,
+                    latency.getValueAtPercentile(99.9) / 1e3, latency.getMaxValue() / 1e3,
+                    serviceTime.getValueAtPercentile(99) / 1e3);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.server.benchmark;
+
+import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.service.TransactionSearchPlanner;
+import com.example.server.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Search latency of {@link TransactionService#searchTransaction} (page + count query) with and without
+ * the managed secondary indexes. Run with {@code mvn test -Pbenchmark -Dbenchmark.rows=1000000}.
+ * <p>
+ * Every iteration uses different filter values so that H2 cannot hand back the previous result.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search-index-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "transaction.search-cache.maximum-rows=0"
+})
+class SearchIndexBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchLatencyWithAndWithoutIndexes() {
+        BenchmarkData.seed(jdbcTemplate, ROWS);
+        Map<String, IntFunction<TransactionSearchVO>> scenarios = scenarios();
+
+        Map<String, Double> indexed = measure(scenarios);
+        List<String> indexDdl = dropIndexes();
+        Map<String, Double> unindexed = measure(scenarios);
+        indexDdl.forEach(jdbcTemplate::execute);
+
+        System.out.printf("%nsearchTransaction latency at %,d rows (median of %d, ms)%n", ROWS, ITERATIONS);
+        System.out.printf("%-24s %12s %12s %9s%n", "scenario", "no index", "indexed", "speedup");
+        scenarios.keySet().forEach(name -> System.out.printf("%-24s %12.2f %12.2f %8.1fx%n",
+                name, unindexed.get(name), indexed.get(name), unindexed.get(name) / indexed.get(name)));
+    }
+
+    private Map<String, IntFunction<TransactionSearchVO>> scenarios() {
+        Map<String, IntFunction<TransactionSearchVO>> scenarios = new LinkedHashMap<>();
+        scenarios.put("status + date range", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setStatus(BenchmarkData.STATUSES[i % BenchmarkData.STATUSES.length]);
+            vo.setStartDate(BenchmarkData.EPOCH.plusDays(10L * i));
+            vo.setEndDate(BenchmarkData.EPOCH.plusDays(10L * i + 7));
+            return vo;
+        });
+        scenarios.put("submittedBy + status", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setSubmittedBy(String.format("user%04d", i));
+            vo.setStatus("SUBMITTED");
+            return vo;
+        });
+        scenarios.put("submittedBy", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setSubmittedBy(String.format("user%04d", 500 + i));
+            return vo;
+        });
+        scenarios.put("approvedBy", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setApprovedBy(String.format("admin%03d", i));
+            return vo;
+        });
+        scenarios.put("type + date range", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setType(i % 2 == 0 ? "LOAN" : "PAYMENT");
+            vo.setStartDate(BenchmarkData.EPOCH.plusDays(10L * i));
+            vo.setEndDate(BenchmarkData.EPOCH.plusDays(10L * i + 1));
+            return vo;
+        });
+        scenarios.put("date range", i -> {
+            TransactionSearchVO vo = new TransactionSearchVO();
+            vo.setStartDate(BenchmarkData.EPOCH.plusDays(10L * i));
+            vo.setEndDate(BenchmarkData.EPOCH.plusDays(10L * i + 2));
+            return vo;
+        });
+        return scenarios;
+    }
+
+    private Map<String, Double> measure(Map<String, IntFunction<TransactionSearchVO>> scenarios) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        scenarios.forEach((name, scenario) -> {
+            for (int i = 0; i < WARMUP; i++) {
+                transactionService.searchTransaction(scenario.apply(ITERATIONS + i));
+            }
+            double[] samples = new double[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                TransactionSearchVO vo = scenario.apply(i);
+                long start = System.nanoTime();
+                transactionService.searchTransaction(vo);
+                samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+            Arrays.sort(samples);
+            result.put(name, samples[ITERATIONS / 2]);
+        });
+        return result;
+    }
+
+    private List<String> dropIndexes() {
+        List<String> ddl = new ArrayList<>();
+        new TransactionSearchPlanner().getIndexes().stream()
+                .filter(index -> !TransactionSearchPlanner.PRIMARY_KEY.equals(index.name()))
+                .forEach(index -> {
+                    String columns = String.join(", ", jdbcTemplate.queryForList(
+                            "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                                    "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION",
+                            String.class, index.name().toUpperCase(Locale.ROOT)));
+                    ddl.add("CREATE INDEX " + index.name() + " ON transactions (" + columns + ")");
+                    jdbcTemplate.execute("DROP INDEX " + index.name());
+                });
+        return ddl;
+    }
+}
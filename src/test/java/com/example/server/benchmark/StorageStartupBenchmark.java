@@ -0,0 +1,93 @@
+package com.example.server.benchmark;
+
+import com.example.server.ServerApplication;
+import com.example.server.service.TransactionDescriptionIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Startup time of the in-memory store, which replays schema.sql and data.sql and has to be seeded
+ * again on every start, against restarts of the file-backed store, which opens the checkpointed
+ * file and skips SQL init.
+ * Run with {@code mvn test -Pbenchmark -Dtest=StorageStartupBenchmark -Dbenchmark.rows=200000}.
+ */
+@Tag("benchmark")
+class StorageStartupBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int RESTARTS = Integer.getInteger("benchmark.restarts", 3);
+
+    @TempDir
+    Path storage;
+
+    @Test
+    void memoryVersusFileStartup() throws Exception {
+        System.out.printf("%nstartup with %,d seeded rows%n", ROWS);
+        System.out.printf("%-24s %12s %12s %12s%n", "mode", "start ms", "seed ms", "rows");
+
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start("memory")) {
+            long started = System.nanoTime();
+            seed(context);
+            print("memory", start, started, System.nanoTime(), count(context));
+        }
+
+        long expected;
+        start = System.nanoTime();
+        try (ConfigurableApplicationContext context = start("file")) {
+            long started = System.nanoTime();
+            seed(context);
+            expected = count(context);
+            print("file, first start", start, started, System.nanoTime(), expected);
+        }
+
+        for (int i = 1; i <= RESTARTS; i++) {
+            start = System.nanoTime();
+            try (ConfigurableApplicationContext context = start("file")) {
+                long started = System.nanoTime();
+                long rows = count(context);
+                assertEquals(expected, rows, "a restart keeps the checkpointed rows");
+                print("file, restart " + i, start, started, started, rows);
+            }
+        }
+        try (var files = Files.list(storage)) {
+            System.out.printf("file store size: %,d bytes%n", files.mapToLong(path -> path.toFile().length()).sum());
+        }
+    }
+
+    private ConfigurableApplicationContext start(String mode) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ServerApplication.class);
+        if (mode.equals("file")) {
+            builder.profiles("file");
+        }
+        return builder.run(
+                "--server.port=0",
+                "--transaction.storage.path=" + storage.resolve("transactions"),
+                "--spring.datasource.url=" + (mode.equals("file") ? "jdbc:h2:file:${transaction.storage.path}"
+                        : "jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1"),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        BenchmarkData.seed(context.getBean(JdbcTemplate.class), ROWS);
+        context.getBean(TransactionDescriptionIndex.class).rebuild();
+    }
+
+    private static long count(ConfigurableApplicationContext context) {
+        return context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+    }
+
+    private static void print(String mode, long start, long started, long seeded, long rows) {
+        System.out.printf("%-24s %12.0f %12.0f %,12d%n", mode, (started - start) / 1e6, (seeded - started) / 1e6, rows);
+    }
+}
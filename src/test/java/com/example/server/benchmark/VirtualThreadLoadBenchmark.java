@@ -0,0 +1,176 @@
+package com.example.server.benchmark;
+
+import com.example.server.ServerApplication;
+import com.example.server.service.TransactionDescriptionIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mixed create/search HTTP load against the app with platform request threads (Tomcat's pool of 200),
+ * with virtual request threads, and with virtual threads but no ConnectionPermits cap, at several
+ * numbers of concurrent clients. Each client sends its next request as soon as the previous one
+ * returns; one in five requests is a create, the rest search a random status and month.
+ * Run with {@code mvn test -Pbenchmark -Dtest=VirtualThreadLoadBenchmark -Dbenchmark.rows=100000}.
+ * Modes started later in the same JVM reuse JIT-compiled code, so for a fair comparison run one
+ * mode per invocation with {@code -Dbenchmark.modes=platform} (or {@code virtual}, {@code virtual-no-permits}).
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 15);
+    private static final int[] CLIENTS = Arrays.stream(System.getProperty("benchmark.clients", "50,500,2000").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+    private static final List<String> MODES = List.of(
+            System.getProperty("benchmark.modes", "platform,virtual,virtual-no-permits").split(","));
+    private static final String[] SEARCH_STATUSES = {"SUBMITTED", "APPROVED", "REJECTED", "CANCELLED", "COMPLETED"};
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        System.out.printf("%nmixed create/search load, %,d rows, %d s per run%n", ROWS, SECONDS);
+        System.out.printf("%-22s %8s %10s %9s %9s %9s %8s %10s%n",
+                "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors", "threads");
+        if (MODES.contains("platform")) {
+            run("platform", false, 0);
+        }
+        if (MODES.contains("virtual")) {
+            run("virtual", true, 0);
+        }
+        if (MODES.contains("virtual-no-permits")) {
+            run("virtual-no-permits", true, 100_000);
+        }
+    }
+
+    private void run(String mode, boolean virtual, int maxPermits) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ServerApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--transaction.connection-permits.max=" + maxPermits,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + virtual + maxPermits + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN")) {
+            BenchmarkData.seed(context.getBean(JdbcTemplate.class), ROWS);
+            context.getBean(TransactionDescriptionIndex.class).rebuild();
+            String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/transaction";
+
+            // warm up the JIT and the connection pool before measuring
+            load(base, 50, 30);
+            for (int clients : CLIENTS) {
+                threads.resetPeakThreadCount();
+                Result result = load(base, clients, SECONDS);
+                System.out.printf("%-22s %8d %10.0f %9.1f %9.1f %9.1f %8d %10d%n", mode, clients,
+                        result.requests / (double) SECONDS, result.percentile(0.50), result.percentile(0.99),
+                        result.percentile(1.0), result.errors, threads.getPeakThreadCount());
+            }
+        }
+    }
+
+    private Result load(String base, int clients, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>(clients);
+        // clients are virtual threads in every mode, so only server threads show up in the peak count
+        try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long[] samples = new long[1 << 16];
+                latencies.add(samples);
+                int client = c;
+                executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(client);
+                    int n = 1;
+                    while (System.nanoTime() < deadline && n < samples.length) {
+                        boolean create = random.nextInt(5) == 0;
+                        HttpRequest request = create ? createRequest(base, random) : searchRequest(base, random);
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                            String body = response.body();
+                            if (response.statusCode() != 200
+                                    || !(create ? body.startsWith("{\"code\":200") : body.contains("\"content\""))) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        samples[n++] = System.nanoTime() - start;
+                    }
+                    samples[0] = n - 1;
+                    return null;
+                });
+            }
+        }
+        return new Result(latencies, errors.get());
+    }
+
+    private static HttpRequest createRequest(String base, SplittableRandom random) {
+        String body = "{\"type\":\"PAYMENT\",\"amount\":" + random.nextInt(1, 100_000) + ".00,"
+                + "\"transactionDate\":\"2024-05-01T10:00:00\",\"transactionDescription\":\"Load test invoice "
+                + random.nextInt(1_000_000) + "\",\"debitAccount\":\"100001\",\"creditAccount\":\"200001\",\"currency\":\"CNY\"}";
+        return HttpRequest.newBuilder(URI.create(base + "/create?userId=load"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static HttpRequest searchRequest(String base, SplittableRandom random) {
+        int month = random.nextInt(24);
+        String start = BenchmarkData.EPOCH.plusMonths(month).toString();
+        String end = BenchmarkData.EPOCH.plusMonths(month + 1).toString();
+        String body = "{\"status\":\"" + SEARCH_STATUSES[random.nextInt(SEARCH_STATUSES.length)] + "\","
+                + "\"startDate\":\"" + start + "\",\"endDate\":\"" + end + "\",\"page\":0,\"pageSize\":20}";
+        return HttpRequest.newBuilder(URI.create(base + "/search"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static final class Result {
+        private final long[] sorted;
+        private final long requests;
+        private final long errors;
+
+        Result(List<long[]> latencies, long errors) {
+            int total = 0;
+            for (long[] samples : latencies) {
+                total += (int) samples[0];
+            }
+            sorted = new long[total];
+            int offset = 0;
+            for (long[] samples : latencies) {
+                System.arraycopy(samples, 1, sorted, offset, (int) samples[0]);
+                offset += (int) samples[0];
+            }
+            Arrays.sort(sorted);
+            this.requests = total;
+            this.errors = errors;
+        }
+
+        double percentile(double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+    }
+}
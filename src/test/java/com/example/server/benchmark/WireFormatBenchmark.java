@@ -0,0 +1,153 @@
+package com.example.server.benchmark;
+
+import com.example.server.model.vo.TransactionSearchResultVO;
+import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.service.TransactionService;
+import com.example.server.util.Constants;
+import com.example.server.util.TransactionMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and serialization CPU of a full search page ({@code MAX_PAGE_SIZE} rows) as row JSON, columnar
+ * JSON, CBOR and columnar CBOR, each plain and gzip-compressed. The bytes received over HTTP are also
+ * measured, with and without {@code Accept-Encoding: gzip}. Run with
+ * {@code mvn test -Pbenchmark -Dtest=WireFormatBenchmark -Dbenchmark.rows=100000}.
+ * <p>
+ * Serialization CPU is the thread CPU time of one {@code writeValueAsBytes} with the mappers the
+ * message converters use. The columnar figures include building the columns from the page.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:wire-format-benchmark;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"
+})
+class WireFormatBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 200;
+    private static final String SEARCH = "{\"status\":\"APPROVED\",\"page\":0,\"pageSize\":" + Constants.MAX_PAGE_SIZE + "}";
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void searchPagePayloads() throws Exception {
+        BenchmarkData.seed(jdbcTemplate, ROWS);
+        TransactionSearchVO search = new TransactionSearchVO();
+        search.setStatus(Constants.TX_STATUS_APPROVED);
+        search.setPageSize(Constants.MAX_PAGE_SIZE);
+        Page<TransactionSearchResultVO> page = transactionService.searchTransaction(search);
+        ObjectMapper cbor = cborConverter.getObjectMapper();
+
+        Map<String, Supplier<byte[]>> formats = new LinkedHashMap<>();
+        formats.put("json", () -> write(objectMapper, page));
+        formats.put("columnar json", () -> write(objectMapper, TransactionMapper.toColumns(page)));
+        formats.put("cbor", () -> write(cbor, page));
+        formats.put("columnar cbor", () -> write(cbor, TransactionMapper.toColumns(page)));
+
+        System.out.printf("%nSearch page of %d rows (of %,d seeded), median of %d%n", page.getNumberOfElements(), ROWS, ITERATIONS);
+        System.out.printf("%-14s %10s %10s %14s %12s%n", "format", "bytes", "gzip bytes", "serialize us", "gzip us");
+        formats.forEach((name, format) -> {
+            byte[] bytes = format.get();
+            byte[] gzipped = gzip(bytes);
+            System.out.printf("%-14s %10d %10d %14.0f %12.0f%n", name, bytes.length, gzipped.length,
+                    cpuMicros(format::get), cpuMicros(() -> gzip(bytes)));
+        });
+
+        Map<String, String> accepts = new LinkedHashMap<>();
+        accepts.put("json", MediaType.APPLICATION_JSON_VALUE);
+        accepts.put("columnar json", Constants.MEDIA_TYPE_COLUMNAR_JSON);
+        accepts.put("cbor", MediaType.APPLICATION_CBOR_VALUE);
+        System.out.printf("%nPOST /transaction/search over HTTP%n");
+        System.out.printf("%-14s %12s %12s %18s%n", "Accept", "identity", "gzip", "Content-Encoding");
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            for (Map.Entry<String, String> accept : accepts.entrySet()) {
+                HttpResponse<byte[]> identity = http.send(request(accept.getValue(), "identity"),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                HttpResponse<byte[]> gzip = http.send(request(accept.getValue(), "gzip"),
+                        HttpResponse.BodyHandlers.ofByteArray());
+                System.out.printf("%-14s %12d %12d %18s%n", accept.getKey(), identity.body().length, gzip.body().length,
+                        gzip.headers().firstValue("Content-Encoding").orElse("-"));
+            }
+        }
+    }
+
+    private HttpRequest request(String accept, String encoding) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/transaction/search"))
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .header("Accept", accept)
+                .header("Accept-Encoding", encoding)
+                .POST(HttpRequest.BodyPublishers.ofString(SEARCH)).build();
+    }
+
+    private double cpuMicros(Supplier<?> task) {
+        for (int i = 0; i < WARMUP; i++) {
+            task.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = threads.getCurrentThreadCpuTime();
+            task.get();
+            samples[i] = threads.getCurrentThreadCpuTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2] / 1_000.0;
+    }
+
+    private static byte[] write(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.server.config;
+
+import com.example.server.ServerApplication;
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.service.TransactionService;
+import com.example.server.util.Constants;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application twice on the same file store and checks that the second start keeps the
+ * data of the first instead of replaying schema.sql and data.sql.
+ */
+class DurableStorageTest {
+
+    @TempDir
+    Path storage;
+
+    @Test
+    void fileMode_shouldKeepDataAcrossRestartsAndSkipSqlInit() {
+        Long id;
+        long seededRows;
+        try (ConfigurableApplicationContext context = start()) {
+            seededRows = countRows(context);
+            assertTrue(seededRows > 0, "the first start runs data.sql");
+            id = context.getBean(TransactionService.class)
+                    .createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01").getId();
+        }
+
+        try (ConfigurableApplicationContext context = start()) {
+            assertEquals(seededRows + 1, countRows(context));
+            assertEquals("Durable storage test", context.getBean(TransactionService.class)
+                    .getTransactionById(id, "user01").getTransactionDescription());
+            assertNotNull(context.getBean(JdbcTemplate.class)
+                    .queryForObject("SELECT checkpoint_at FROM storage_checkpoint WHERE id = 1", LocalDateTime.class));
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ServerApplication.class).profiles("file").run(
+                "--server.port=0",
+                "--transaction.storage.path=" + storage.resolve("transactions"),
+                "--spring.jpa.show-sql=false");
+    }
+
+    private static long countRows(ConfigurableApplicationContext context) {
+        return context.getBean(JdbcTemplate.class).queryForObject("SELECT COUNT(*) FROM transactions", Long.class);
+    }
+
+    private static TransactionVO buildTransactionVO() {
+        TransactionVO vo = new TransactionVO();
+        vo.setType(Constants.TX_TYPE_PAYMENT);
+        vo.setAmount(new BigDecimal("250.00"));
+        vo.setTransactionDate(LocalDateTime.now());
+        vo.setTransactionDescription("Durable storage test");
+        vo.setDebitAccount("1001");
+        vo.setCreditAccount("2001");
+        vo.setCurrency(Constants.DEFAULT_CURRENCY);
+        return vo;
+    }
+}
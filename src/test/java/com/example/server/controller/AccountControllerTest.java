@@ -0,0 +1,75 @@
+package com.example.server.controller;
+
+import com.example.server.config.SqlStatementCounter;
+import com.example.server.model.vo.AccountBalanceVO;
+import com.example.server.service.ConnectionPermits;
+import com.example.server.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AccountController.class)
+class AccountControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TransactionService transactionService;
+
+    @MockBean
+    private ConnectionPermits connectionPermits;
+
+    @MockBean
+    private SqlStatementCounter sqlStatementCounter;
+
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void getAccountBalance_shouldReturnApprovedTotalsPerCurrency() throws Exception {
+        when(transactionService.getAccountBalance(eq("1001"), isNull())).thenReturn(List.of(
+                new AccountBalanceVO("1001", "EUR", new BigDecimal("300.00"), new BigDecimal("50.00"),
+                        new BigDecimal("250.00"), 3),
+                new AccountBalanceVO("1001", "USD", BigDecimal.ZERO, new BigDecimal("20.00"),
+                        new BigDecimal("-20.00"), 1)));
+
+        mockMvc.perform(get("/account/1001/balance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].currency").value("EUR"))
+                .andExpect(jsonPath("$.data[0].net").value(250.00))
+                .andExpect(jsonPath("$.data[0].count").value(3))
+                .andExpect(jsonPath("$.data[1].net").value(-20.00));
+    }
+
+    @Test
+    void getAccountBalance_withCurrency_shouldPassItThrough() throws Exception {
+        when(transactionService.getAccountBalance("1001", "USD")).thenReturn(List.of());
+
+        mockMvc.perform(get("/account/1001/balance").param("currency", "USD"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(0));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.server.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes /actuator/prometheus after a few requests and checks that endpoint latencies, service
+ * method latencies, SQL statements per request, cache gets of the entity and search caches and
+ * search row counts are exported.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics-endpoint-test;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void prometheusEndpoint_shouldExposeHotPathMetrics() throws Exception {
+        mockMvc.perform(get("/transaction/1").param("userId", "user01")).andExpect(status().isOk());
+        mockMvc.perform(get("/transaction/1").param("userId", "user01")).andExpect(status().isOk());
+        mockMvc.perform(post("/transaction/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"SUBMITTED\",\"page\":0,\"pageSize\":10}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_count{error=\"none\",exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/transaction/{id}\"} 2")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("transaction_service_seconds_bucket{")))
+                .andExpect(content().string(containsString("method=\"getTransactionById\"")))
+                .andExpect(content().string(containsString(
+                        "transaction_sql_statements_count{method=\"POST\",uri=\"/transaction/search\"} 1")))
+                .andExpect(content().string(containsString(
+                        "cache_gets_total{cache=\"transaction\",cache_manager=\"cacheManager\",name=\"transaction\",result=\"hit\"} 1")))
+                .andExpect(content().string(containsString(
+                        "cache_gets_total{cache=\"transaction\",cache_manager=\"cacheManager\",name=\"transaction\",result=\"miss\"} 1")))
+                .andExpect(content().string(containsString("transaction_search_rows_count{pagination=\"offset\"} 1")))
+                .andExpect(content().string(containsString(
+                        "cache_gets_total{cache=\"transactionSearch\",cache_manager=\"transactionSearchCache\",name=\"transactionSearch\",result=\"miss\"} 1")));
+    }
+}
@@ -1,24 +1,60 @@
 
 package com.example.server.controller;
 
+import com.example.server.config.SqlStatementCounter;
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
 import com.example.server.model.data.Transaction;
+import com.example.server.model.vo.BatchItemResultVO;
+import com.example.server.model.vo.CursorPageVO;
+import com.example.server.model.vo.TransactionSearchResultVO;
+import com.example.server.model.vo.TransactionSummaryVO;
 import com.example.server.model.vo.TransactionVO;
+import com.example.server.service.ConnectionPermits;
+import com.example.server.service.TransactionChangeFeed;
+import com.example.server.service.TransactionExportService;
 import com.example.server.service.TransactionService;
 import com.example.server.util.Constants;
+import com.example.server.util.TransactionMapper;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +68,29 @@ class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @MockBean
+    private TransactionChangeFeed transactionChangeFeed;
+
+    @MockBean
+    private ConnectionPermits connectionPermits;
+
+    @MockBean
+    private SqlStatementCounter sqlStatementCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class MetricsConfiguration {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -55,6 +114,26 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.data.type").value("PAYMENT"));
     }
 
+    @Test
+    void createTransactions_shouldReturnPerItemResults() throws Exception {
+        TransactionVO created = new TransactionVO();
+        created.setId(51L);
+        List<BatchItemResultVO<TransactionVO>> results = List.of(
+                new BatchItemResultVO<>(0, 200, "Success", created),
+                new BatchItemResultVO<>(1, 4001, "Invalid parameter - amount", null));
+
+        when(transactionService.createTransactions(anyList(), eq(Constants.TX_CONTEXT_CREATE), eq("user1")))
+                .thenReturn(results);
+
+        mockMvc.perform(post("/transaction/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new TransactionVO(), new TransactionVO())))
+                        .param("userId", "user1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].data.id").value(51L))
+                .andExpect(jsonPath("$.data[1].code").value(4001));
+    }
+
     @Test
     void updateTransaction_shouldReturnSuccess() throws Exception {
         TransactionVO input = new TransactionVO();
@@ -119,6 +198,21 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.data").value(1));
     }
 
+    @Test
+    void approveTransactions_shouldReturnPerIdOutcomes() throws Exception {
+        when(transactionService.handleTransactions(eq(List.of(3L, 4L)), eq(Constants.TX_CONTEXT_APPROVE), eq("user1")))
+                .thenReturn(List.of(new BatchItemResultVO<>(0, 200, Constants.BATCH_OUTCOME_TRANSITIONED, 3L),
+                        new BatchItemResultVO<>(1, 4004, Constants.BATCH_OUTCOME_NOT_FOUND, 4L)));
+
+        mockMvc.perform(post("/transaction/approve/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[3, 4]")
+                        .param("userId", "user1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].message").value(Constants.BATCH_OUTCOME_TRANSITIONED))
+                .andExpect(jsonPath("$.data[1].data").value(4L));
+    }
+
     @Test
     void getTransactionById_shouldReturnSuccess() throws Exception {
         TransactionVO output = new TransactionVO();
@@ -132,6 +226,66 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.data.id").value(6L));
     }
 
+    @Test
+    void getTransactionById_shouldSendAnETagOfIdAndVersion() throws Exception {
+        TransactionVO output = new TransactionVO();
+        output.setId(6L);
+        output.setVersion(3L);
+        when(transactionService.getTransactionVersion(6L)).thenReturn(2L);
+        when(transactionService.getTransactionById(eq(6L), eq("user1"))).thenReturn(output);
+
+        // an If-None-Match of an older version gets the full body, tagged with the version it carries
+        mockMvc.perform(get("/transaction/6")
+                        .param("userId", "user1")
+                        .header("If-None-Match", "\"6-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6-3\""))
+                .andExpect(jsonPath("$.data.version").value(3L));
+    }
+
+    @Test
+    void getTransactionById_withMatchingIfNoneMatch_shouldReturn304WithoutLoadingIt() throws Exception {
+        when(transactionService.getTransactionVersion(6L)).thenReturn(3L);
+
+        mockMvc.perform(get("/transaction/6")
+                        .param("userId", "user1")
+                        .header("If-None-Match", "\"6-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"6-3\""))
+                .andExpect(content().string(""));
+        verify(transactionService, never()).getTransactionById(any(), any());
+    }
+
+    @Test
+    void getTransactionSummary_shouldPassFiltersAndDates() throws Exception {
+        when(transactionService.getTransactionSummary(eq("SUBMITTED"), isNull(), isNull(),
+                eq(LocalDate.of(2024, 5, 1)), eq(LocalDate.of(2024, 5, 31))))
+                .thenReturn(List.of(new TransactionSummaryVO("SUBMITTED", "CNY", "PAYMENT", 3, new BigDecimal("750.00"))));
+
+        mockMvc.perform(get("/transaction/summary")
+                        .param("status", "SUBMITTED")
+                        .param("startDate", "2024-05-01")
+                        .param("endDate", "2024-05-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].count").value(3))
+                .andExpect(jsonPath("$.data[0].amount").value(750.00));
+        // served from memory, so no connection permit is taken
+        verify(connectionPermits, never()).acquire();
+    }
+
+    @Test
+    void streamChanges_shouldResumeAfterLastEventId() throws Exception {
+        when(transactionChangeFeed.subscribe(any(), any(), any())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/transaction/changes")
+                        .param("status", "SUBMITTED")
+                        .param("after", "3")
+                        .header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted());
+        verify(transactionChangeFeed).subscribe(eq("SUBMITTED"), isNull(), eq(42L));
+        verify(connectionPermits, never()).acquire();
+    }
+
     @Test
     void deleteTransaction_shouldReturnSuccess() throws Exception {
         when(transactionService.deleteTransaction(eq(7L), eq("user1"))).thenReturn(true);
@@ -150,17 +304,19 @@ class TransactionControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{}"))
                 .andExpect(status().isOk());
+        // the service takes the permit, only when the search is not cached
+        verify(connectionPermits, never()).acquire();
     }
 
     @Test
     void searchTransaction_withPagination_shouldReturnPagedResult() throws Exception {
         // 构造分页内容
-        List<Transaction> transactions = new ArrayList<>();
+        List<TransactionSearchResultVO> transactions = new ArrayList<>();
         Transaction t1 = new Transaction();
         t1.setId(100L);
-        transactions.add(t1);
+        transactions.add(TransactionMapper.toSearchResult(t1));
 
-        Page<Transaction> page = new org.springframework.data.domain.PageImpl<>(
+        Page<TransactionSearchResultVO> page = new org.springframework.data.domain.PageImpl<>(
                 transactions,
                 org.springframework.data.domain.PageRequest.of(1, 10),
                 25 // 总条数
@@ -176,12 +332,15 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(25))
                 .andExpect(jsonPath("$.totalPages").value(3))
                 .andExpect(jsonPath("$.size").value(10))
-                .andExpect(jsonPath("$.number").value(1));
+                .andExpect(jsonPath("$.number").value(1))
+                .andExpect(jsonPath("$.first").value(false))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
 
     @Test
     void searchTransaction_emptyPage_shouldReturnEmptyContent() throws Exception {
-        Page<Transaction> emptyPage = Page.empty(org.springframework.data.domain.PageRequest.of(0, 5));
+        Page<TransactionSearchResultVO> emptyPage = Page.empty(org.springframework.data.domain.PageRequest.of(0, 5));
         when(transactionService.searchTransaction(any())).thenReturn(emptyPage);
 
         mockMvc.perform(post("/transaction/search")
@@ -192,4 +351,166 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(0))
                 .andExpect(jsonPath("$.totalPages").value(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchTransaction_keysetMode_shouldReturnCursorPage() throws Exception {
+        Transaction t1 = new Transaction();
+        t1.setId(100L);
+        CursorPageVO<TransactionSearchResultVO> page = new CursorPageVO<>(List.of(TransactionMapper.toSearchResult(t1)), 1, true, "next-token");
+
+        when(transactionService.searchTransactionByCursor(any())).thenReturn(page);
+
+        mockMvc.perform(post("/transaction/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"pagination\":\"keyset\",\"pageSize\":1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(100L))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void searchTransaction_columnarAccept_shouldReturnOneArrayPerField() throws Exception {
+        Transaction t1 = new Transaction();
+        t1.setId(100L);
+        t1.setStatus(Constants.TX_STATUS_APPROVED);
+        t1.setApprovedBy("admin1");
+        Transaction t2 = new Transaction();
+        t2.setId(101L);
+        t2.setStatus(Constants.TX_STATUS_SUBMITTED);
+        Page<TransactionSearchResultVO> page = new org.springframework.data.domain.PageImpl<>(
+                List.of(TransactionMapper.toSearchResult(t1), TransactionMapper.toSearchResult(t2)),
+                org.springframework.data.domain.PageRequest.of(0, 2), 5);
+        when(transactionService.searchTransaction(any())).thenReturn(page);
+
+        mockMvc.perform(post("/transaction/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(Constants.MEDIA_TYPE_COLUMNAR_JSON)
+                        .content("{\"page\":0,\"pageSize\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(Constants.MEDIA_TYPE_COLUMNAR_JSON))
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.columns.id[0]").value(100L))
+                .andExpect(jsonPath("$.columns.id[1]").value(101L))
+                .andExpect(jsonPath("$.columns.status[1]").value(Constants.TX_STATUS_SUBMITTED))
+                .andExpect(jsonPath("$.columns.approvedBy.length()").value(2))
+                .andExpect(jsonPath("$.columns.approvedBy[0]").value("admin1"))
+                .andExpect(jsonPath("$.columns.approvedBy[1]").doesNotExist())
+                .andExpect(jsonPath("$.columns.amount").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").value(5))
+                .andExpect(jsonPath("$.totalPages").value(3))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchTransaction_columnarAcceptInKeysetMode_shouldCarryTheCursor() throws Exception {
+        Transaction t1 = new Transaction();
+        t1.setId(100L);
+        when(transactionService.searchTransactionByCursor(any())).thenReturn(
+                new CursorPageVO<>(List.of(TransactionMapper.toSearchResult(t1)), 1, true, "next-token"));
+
+        mockMvc.perform(post("/transaction/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(Constants.MEDIA_TYPE_COLUMNAR_JSON)
+                        .content("{\"pagination\":\"keyset\",\"pageSize\":1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.columns.id[0]").value(100L))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void getTransactionById_cborAccept_shouldReturnTheSameValuesAsJson() throws Exception {
+        TransactionVO vo = new TransactionVO();
+        vo.setId(7L);
+        vo.setAmount(new BigDecimal("12.50"));
+        vo.setTransactionDate(LocalDateTime.of(2024, 5, 1, 10, 0));
+        when(transactionService.getTransactionById(7L, "user1")).thenReturn(vo);
+
+        MvcResult result = mockMvc.perform(get("/transaction/7")
+                        .param("userId", "user1")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        // decimal fractions are read back as BigDecimal, keeping the scale the server sent
+        CBORMapper cbor = CBORMapper.builder().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                .disable(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES).build();
+        JsonNode data = cbor.readTree(result.getResponse().getContentAsByteArray()).path("data");
+        assertEquals(7L, data.path("id").asLong());
+        assertEquals(new BigDecimal("12.50"), data.path("amount").decimalValue());
+        assertEquals("2024-05-01T10:00:00", data.path("transactionDate").asText());
+    }
+
+    @Test
+    void exportTransactions_shouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(transactionExportService).exportTransactions(any(), eq(Constants.EXPORT_FORMAT_NDJSON), any());
+
+        MvcResult result = mockMvc.perform(post("/transaction/export")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"SUBMITTED\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", Constants.MEDIA_TYPE_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+
+    @Test
+    void exportTransactions_unknownFormat_shouldFailBeforeStreaming() throws Exception {
+        mockMvc.perform(post("/transaction/export")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+                        .param("format", "xml"))
+                .andExpect(jsonPath("$.code").value(4001));
+
+        verifyNoInteractions(transactionExportService);
+    }
+
+    @Test
+    void getTransactionById_noConnectionPermit_shouldReturnServerBusy() throws Exception {
+        doThrow(new BusinessException(ExecutionCode.SERVER_BUSY)).when(connectionPermits).acquire();
+
+        mockMvc.perform(get("/transaction/6").param("userId", "user1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(5003));
+
+        verifyNoInteractions(transactionService);
+        verify(connectionPermits, never()).release();
+    }
+
+    @Test
+    void getTransactionById_shouldReleaseConnectionPermit() throws Exception {
+        when(transactionService.getTransactionById(eq(6L), eq("user1"))).thenThrow(new BusinessException(ExecutionCode.NOT_FOUND));
+
+        mockMvc.perform(get("/transaction/6").param("userId", "user1"))
+                .andExpect(jsonPath("$.code").value(4004));
+
+        verify(connectionPermits).acquire();
+        verify(connectionPermits).release();
+    }
+
+    @Test
+    void getTransactionById_shouldRecordSqlStatementsPerRequest() throws Exception {
+        when(transactionService.getTransactionById(eq(6L), eq("user1"))).thenReturn(new TransactionVO());
+        when(sqlStatementCounter.end()).thenReturn(3);
+
+        mockMvc.perform(get("/transaction/6").param("userId", "user1"))
+                .andExpect(status().isOk());
+
+        verify(sqlStatementCounter).begin();
+        DistributionSummary statements = meterRegistry.get("transaction.sql.statements")
+                .tags("method", "GET", "uri", "/transaction/{id}").summary();
+        assertEquals(1, statements.count());
+        assertEquals(3, statements.totalAmount());
+    }
+}
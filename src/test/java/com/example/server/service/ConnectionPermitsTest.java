@@ -0,0 +1,56 @@
+package com.example.server.service;
+
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPermitsTest {
+
+    @Test
+    void permits_shouldDefaultToConnectionPoolSize() throws Exception {
+        HikariDataSource hikari = mock(HikariDataSource.class);
+        when(hikari.getMaximumPoolSize()).thenReturn(7);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikari);
+
+        assertEquals(7, new ConnectionPermits(dataSource, 0, Duration.ofSeconds(1)).getPermits());
+        assertEquals(3, new ConnectionPermits(dataSource, 3, Duration.ofSeconds(1)).getPermits());
+    }
+
+    @Test
+    void acquire_exhausted_shouldFailWithServerBusyAfterTimeout() {
+        ConnectionPermits permits = new ConnectionPermits(mock(DataSource.class), 1, Duration.ofMillis(20));
+        permits.acquire();
+
+        BusinessException e = assertThrows(BusinessException.class, permits::acquire);
+        assertEquals(ExecutionCode.SERVER_BUSY.getCode(), e.getCode());
+
+        permits.release();
+        permits.acquire();
+        assertEquals(0, permits.getAvailablePermits());
+    }
+
+    @Test
+    void acquire_shouldWaitForRelease() throws Exception {
+        ConnectionPermits permits = new ConnectionPermits(mock(DataSource.class), 1, Duration.ofSeconds(5));
+        permits.acquire();
+
+        Thread waiter = Thread.ofVirtual().start(permits::acquire);
+        while (permits.getQueueLength() == 0) {
+            Thread.onSpinWait();
+        }
+        permits.release();
+        waiter.join(5_000);
+
+        assertFalse(waiter.isAlive());
+        assertEquals(0, permits.getAvailablePermits());
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.server.service;
+
+import com.example.server.model.vo.TransactionChangeVO;
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionChangeFeedTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TransactionChangeFeed feed;
+
+    @AfterEach
+    void tearDown() {
+        feed.stop();
+    }
+
+    @Test
+    void subscriber_shouldReceiveOnlyMatchingChangesInCommitOrder() throws Exception {
+        start(1024);
+        RecordingEmitter submitted = new RecordingEmitter(null);
+        feed.subscribe(submitted, Constants.TX_STATUS_SUBMITTED, "user01", null);
+        assertEquals("subscribed@0", submitted.next());
+
+        create(1L, "user01");
+        create(2L, "user02");
+        transition(Constants.TX_CONTEXT_APPROVE, 1L, Constants.TX_STATUS_SUBMITTED, Constants.TX_STATUS_APPROVED, "user01");
+        transition(Constants.TX_CONTEXT_DELETE, 1L, Constants.TX_STATUS_APPROVED, null, "user01");
+
+        assertEquals("change@1=CREATE:1:null>SUBMITTED", submitted.next());
+        assertEquals("change@3=APPROVE:1:SUBMITTED>APPROVED", submitted.next());
+        assertNull(submitted.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscriber_shouldResumeFromTheHistoryAndThenFollowLiveChanges() throws Exception {
+        start(1024);
+        for (long id = 1; id <= 5; id++) {
+            create(id, "user01");
+        }
+        awaitPublished(5);
+
+        RecordingEmitter resumed = new RecordingEmitter(null);
+        feed.subscribe(resumed, null, null, 3L);
+        create(6L, "user01");
+
+        assertEquals("subscribed@3", resumed.next());
+        assertEquals("change@4=CREATE:4:null>SUBMITTED", resumed.next());
+        assertEquals("change@5=CREATE:5:null>SUBMITTED", resumed.next());
+        assertEquals("change@6=CREATE:6:null>SUBMITTED", resumed.next());
+    }
+
+    @Test
+    void subscriber_resumingFromAnUnknownSequence_shouldBeToldToResync() throws Exception {
+        start(1024);
+        create(1L, "user01");
+        awaitPublished(1);
+
+        RecordingEmitter stale = new RecordingEmitter(null);
+        feed.subscribe(stale, null, null, 500L);
+        assertEquals("resync@1", stale.next());
+    }
+
+    @Test
+    void slowSubscriber_shouldBeDisconnectedWithoutHoldingUpOthers() throws Exception {
+        start(64);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        feed.subscribe(slow, null, null, null);
+        feed.subscribe(fast, null, null, null);
+        assertEquals("subscribed@0", fast.next());
+
+        // bursts that fit one subscriber buffer; the blocked subscriber overflows in the second one
+        long id = 0;
+        for (int burst = 0; burst < 3; burst++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 64; i++) {
+                create(++id, "user01");
+            }
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "publishing waited for a subscriber");
+            String last = null;
+            for (int i = 0; i < 64; i++) {
+                last = fast.events.poll(5, TimeUnit.SECONDS);
+                assertNotNull(last, "burst " + burst + " event " + i + " overflows " + meterRegistry.get("transaction.changes.overflows").counter().count());
+            }
+            assertEquals("change@" + id + "=CREATE:" + id + ":null>SUBMITTED", last);
+        }
+        assertEquals(1.0, meterRegistry.get("transaction.changes.overflows").counter().count());
+
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertFalse(fast.completed.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    private void start(int subscriberBuffer) {
+        feed = new TransactionChangeFeed(meterRegistry, 16, subscriberBuffer, 8, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        feed.start();
+    }
+
+    private void create(Long id, String submittedBy) {
+        TransactionVO created = new TransactionVO();
+        created.setId(id);
+        created.setStatus(Constants.TX_STATUS_SUBMITTED);
+        created.setSubmittedBy(submittedBy);
+        feed.onTransactionChanged(new TransactionChangedEvent(Constants.TX_CONTEXT_CREATE, List.of(created)));
+    }
+
+    private void transition(String context, Long id, String from, String to, String submittedBy) {
+        TransactionVO before = new TransactionVO();
+        before.setId(id);
+        before.setStatus(from);
+        before.setSubmittedBy(submittedBy);
+        TransactionVO after = new TransactionVO();
+        after.setId(id);
+        after.setStatus(to);
+        feed.onTransactionChanged(new TransactionChangedEvent(context, List.of(after), List.of(before)));
+    }
+
+    private void awaitPublished(long sequence) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (feed.getPublished() < sequence && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(sequence, feed.getPublished());
+    }
+
+    /**
+     * Records each event as {@code name@id} or {@code name@id=action:transaction:from>to}; sends block
+     * until {@code release} opens when one is given.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            String name = null;
+            String id = null;
+            TransactionChangeVO change = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof TransactionChangeVO data) {
+                    change = data;
+                } else if (part.getData() instanceof String text) {
+                    for (String line : text.split("\n")) {
+                        if (line.startsWith("id:")) {
+                            id = line.substring(3);
+                        } else if (line.startsWith("event:")) {
+                            name = line.substring(6);
+                        }
+                    }
+                }
+            }
+            events.add(name + "@" + id + (change == null ? "" : "=" + change.getAction() + ":" + change.getTransactionId()
+                    + ":" + change.getFromStatus() + ">" + change.getToStatus()));
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        private String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event within 5 seconds");
+            return event;
+        }
+    }
+}
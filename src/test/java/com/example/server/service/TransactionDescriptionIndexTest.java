@@ -0,0 +1,89 @@
+package com.example.server.service;
+
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionDescriptionIndexTest {
+
+    private TransactionDescriptionIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        when(resultSet.getString(2)).thenReturn("Office rent March", "Vendor invoice 1001");
+        // two live rows and an empty archive
+        doAnswer(invocation -> {
+            if (invocation.<String>getArgument(0).contains("transactions_archive")) {
+                return null;
+            }
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(), any());
+
+        index = new TransactionDescriptionIndex(jdbcTemplate, Runnable::run);
+        index.rebuild();
+    }
+
+    @Test
+    void candidates_shouldResolveSubstringsOfRebuiltRows() {
+        assertArrayEquals(new long[]{1L}, index.candidates("rent"));
+        assertArrayEquals(new long[]{2L}, index.candidates("invoice 10"));
+        assertArrayEquals(new long[0], index.candidates("payroll"));
+        assertEquals(2, index.getIndexedRows());
+    }
+
+    @Test
+    void candidates_shouldDeclineTermsItCannotNarrow() {
+        assertNull(index.candidates("re"));
+        assertNull(index.candidates("rent%"));
+        assertNull(index.candidates("re_t"));
+    }
+
+    @Test
+    void candidates_overMaxCandidates_shouldFallBackToLike() {
+        List<TransactionVO> created = new ArrayList<>();
+        for (long id = 10; id < 10 + TransactionDescriptionIndex.MAX_CANDIDATES + 1; id++) {
+            created.add(transaction(id, "Common payment"));
+        }
+        index.onTransactionChanged(new TransactionChangedEvent(Constants.TX_CONTEXT_CREATE, created));
+
+        assertNull(index.candidates("Common"));
+    }
+
+    @Test
+    void onTransactionChanged_shouldIndexCreatedAndUpdatedDescriptions() {
+        index.onTransactionChanged(new TransactionChangedEvent(Constants.TX_CONTEXT_CREATE,
+                List.of(transaction(3L, "Quarterly payroll"))));
+        assertArrayEquals(new long[]{3L}, index.candidates("payroll"));
+
+        index.onTransactionChanged(new TransactionChangedEvent(Constants.TX_CONTEXT_UPDATE,
+                List.of(transaction(1L, "Office rent April"))));
+        assertArrayEquals(new long[]{1L}, index.candidates("April"));
+        // the old posting stays; the LIKE predicate filters it out
+        assertArrayEquals(new long[]{1L}, index.candidates("March"));
+    }
+
+    private TransactionVO transaction(long id, String description) {
+        TransactionVO vo = new TransactionVO();
+        vo.setId(id);
+        vo.setTransactionDescription(description);
+        return vo;
+    }
+}
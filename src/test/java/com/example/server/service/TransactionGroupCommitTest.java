@@ -0,0 +1,137 @@
+package com.example.server.service;
+
+import com.example.server.model.data.Transaction;
+import com.example.server.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransactionGroupCommitTest {
+
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final AtomicLong ids = new AtomicLong();
+    private TransactionGroupCommit groupCommit;
+
+    @AfterEach
+    void tearDown() {
+        groupCommit.stop();
+    }
+
+    @Test
+    void concurrentInserts_shouldBeGroupedAndEachGetItsOwnId() throws Exception {
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> group = invocation.getArgument(0);
+            group.forEach(this::assignId);
+            return group;
+        });
+        start(16, Duration.ofMillis(5));
+
+        List<Future<Transaction>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                Transaction transaction = transaction("row " + i);
+                results.add(callers.submit(() -> groupCommit.insert(transaction)));
+            }
+        }
+        Set<Long> distinct = new HashSet<>();
+        for (Future<Transaction> result : results) {
+            distinct.add(result.get().getId());
+        }
+        assertEquals(200, distinct.size());
+        verify(transactionRepository, atMost(199)).saveAll(anyList());
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void failedGroup_shouldOnlyFailTheInvalidRow() throws Exception {
+        when(transactionRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("value too long"));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
+            Transaction transaction = invocation.getArgument(0);
+            if (transaction.getTransactionDescription().equals("bad")) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            return assignId(transaction);
+        });
+        start(2, Duration.ofSeconds(5));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Transaction> good = callers.submit(() -> groupCommit.insert(transaction("good")));
+            Future<Transaction> bad = callers.submit(() -> groupCommit.insert(transaction("bad")));
+            assertNotNull(good.get().getId());
+            Exception failure = assertThrows(Exception.class, bad::get);
+            assertInstanceOf(DataIntegrityViolationException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    void insertNotTakenInTime_shouldBeInsertedByItsCallerAndSkippedByTheFlusher() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> grouped = new CopyOnWriteArrayList<>();
+        when(transactionRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transaction> group = invocation.getArgument(0);
+            group.forEach(transaction -> grouped.add(transaction.getTransactionDescription()));
+            release.await();
+            group.forEach(this::assignId);
+            return group;
+        });
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> assignId(invocation.getArgument(0)));
+        start(1, Duration.ofMillis(1), Duration.ofMillis(50));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Transaction> first = callers.submit(() -> groupCommit.insert(transaction("first")));
+            while (grouped.isEmpty()) {
+                Thread.sleep(1);
+            }
+            // the flusher is stuck on the first group, so the second insert is not taken in time
+            Transaction second = groupCommit.insert(transaction("second"));
+            assertNotNull(second.getId());
+            release.countDown();
+            assertNotNull(first.get().getId());
+        }
+        groupCommit.stop();
+        assertEquals(List.of("first"), grouped);
+        verify(transactionRepository, times(1)).save(any());
+    }
+
+    private void start(int maxBatch, Duration maxWait) {
+        start(maxBatch, maxWait, Duration.ofSeconds(10));
+    }
+
+    private void start(int maxBatch, Duration maxWait, Duration handoffTimeout) {
+        groupCommit = new TransactionGroupCommit(transactionRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SimpleMeterRegistry(), true, maxBatch, maxWait, handoffTimeout);
+        groupCommit.start();
+    }
+
+    private Transaction assignId(Transaction transaction) {
+        transaction.setId(ids.incrementAndGet());
+        transaction.setVersion(0L);
+        return transaction;
+    }
+
+    private static Transaction transaction(String description) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDescription(description);
+        return transaction;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.server.service;
+
+import com.example.server.model.vo.TransactionSearchVO;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSearchPlannerTest {
+
+    private final TransactionSearchPlanner planner = new TransactionSearchPlanner();
+
+    @Test
+    void plan_noFilters_shouldHaveNoIndexAndNoPredicates() {
+        TransactionSearchPlanner.SearchPlan plan = planner.plan(new TransactionSearchVO());
+        assertNull(plan.indexName());
+        assertTrue(plan.predicates().isEmpty());
+    }
+
+    @Test
+    void plan_statusAndDateRange_shouldUseStatusDateIndex() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setStartDate(LocalDateTime.now().minusDays(1));
+        vo.setEndDate(LocalDateTime.now());
+        vo.setStatus("SUBMITTED");
+
+        TransactionSearchPlanner.SearchPlan plan = planner.plan(vo);
+        assertEquals("idx_transactions_status_date", plan.indexName());
+        assertEquals(List.of("status", "transactionDate", "transactionDate"), attributes(plan));
+    }
+
+    @Test
+    void plan_submittedByAndStatus_shouldLeadWithSubmittedBy() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setType("PAYMENT");
+        vo.setStatus("SUBMITTED");
+        vo.setSubmittedBy("user01");
+
+        TransactionSearchPlanner.SearchPlan plan = planner.plan(vo);
+        assertEquals("idx_transactions_submitted_by_status", plan.indexName());
+        assertEquals(List.of("submittedBy", "status", "type"), attributes(plan));
+    }
+
+    @Test
+    void plan_descriptionFilter_shouldAlwaysGoLast() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setTransactionDescription("Example");
+        vo.setApprovedBy("admin01");
+        vo.setType("PAYMENT");
+
+        TransactionSearchPlanner.SearchPlan plan = planner.plan(vo);
+        assertEquals("idx_transactions_approved_by", plan.indexName());
+        assertEquals(List.of("approvedBy", "type", "transactionDescription"), attributes(plan));
+    }
+
+    @Test
+    void plan_idFilter_shouldUsePrimaryKey() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setStatus("SUBMITTED");
+        vo.setId(1L);
+
+        TransactionSearchPlanner.SearchPlan plan = planner.plan(vo);
+        assertEquals(TransactionSearchPlanner.PRIMARY_KEY, plan.indexName());
+        assertEquals(List.of("id", "status"), attributes(plan));
+    }
+
+    @Test
+    void plan_debitAccountAndAmountRange_shouldUseAccountAmountIndex() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setCurrency("EUR");
+        vo.setMinAmount(new BigDecimal("10000"));
+        vo.setDebitAccount("1001");
+
+        TransactionSearchPlanner.SearchPlan plan = planner.plan(vo);
+        assertEquals("idx_transactions_debit_account_amount", plan.indexName());
+        assertEquals(List.of("debitAccount", "amount", "currency"), attributes(plan));
+    }
+
+    @Test
+    void plan_eitherAccount_shouldUnionOneIndexPerSide() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setStatus("APPROVED");
+        vo.setMinAmount(new BigDecimal("10000"));
+        vo.setAccount("1001");
+
+        TransactionSearchPlanner.SearchPlan plan = planner.plan(vo);
+        assertEquals("idx_transactions_debit_account_amount UNION idx_transactions_credit_account_amount", plan.indexName());
+        assertEquals(List.of("account", "status", "amount"), attributes(plan));
+        assertEquals(TransactionSearchPlanner.Operator.EITHER, plan.predicates().get(0).operator());
+    }
+
+    @Test
+    void managedIndexes_shouldBeCreatedBySchemaSql() throws Exception {
+        String schema;
+        try (InputStream in = getClass().getResourceAsStream("/schema.sql")) {
+            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        planner.getIndexes().stream()
+                .filter(index -> !TransactionSearchPlanner.PRIMARY_KEY.equals(index.name()))
+                .forEach(index -> assertTrue(schema.contains("CREATE INDEX " + index.name() + " ON transactions"),
+                        "schema.sql is missing " + index.name()));
+    }
+
+    private List<String> attributes(TransactionSearchPlanner.SearchPlan plan) {
+        return plan.predicates().stream().map(TransactionSearchPlanner.SearchPredicate::attribute).toList();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.server.service;
+
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
+import com.example.server.model.vo.BatchItemResultVO;
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires conflicting transitions at the same row from many threads and checks that the guarded
+ * updates let exactly one of them through.
+ */
+@SpringBootTest
+class TransactionServiceConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+    private static final int THREADS = 12;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    void conflictingStatusTransitions_shouldHaveExactlyOneWinner() throws Exception {
+        String[] contexts = {Constants.TX_CONTEXT_APPROVE, Constants.TX_CONTEXT_REJECT, Constants.TX_CONTEXT_CANCEL};
+
+        for (int round = 0; round < ROUNDS; round++) {
+            Long id = createSubmitted();
+            List<Outcome> outcomes = race(i -> () -> {
+                TransactionVO vo = new TransactionVO();
+                vo.setId(id);
+                transactionService.handleTransaction(vo, contexts[i % contexts.length], "approver" + i);
+                return contexts[i % contexts.length];
+            });
+
+            List<Outcome> winners = outcomes.stream().filter(o -> o.error() == null).toList();
+            assertEquals(1, winners.size(), "round " + round);
+            outcomes.stream().filter(o -> o.error() != null)
+                    .forEach(o -> assertEquals(ExecutionCode.BUSINESS_ERROR.getCode(), o.error().getCode()));
+
+            String expectedStatus = switch (winners.get(0).value()) {
+                case Constants.TX_CONTEXT_APPROVE -> Constants.TX_STATUS_APPROVED;
+                case Constants.TX_CONTEXT_REJECT -> Constants.TX_STATUS_REJECTED;
+                default -> Constants.TX_STATUS_CANCELLED;
+            };
+            TransactionVO current = transactionService.getTransactionById(id, "user01");
+            assertEquals(expectedStatus, current.getStatus());
+            assertEquals(1L, current.getVersion());
+        }
+    }
+
+    @Test
+    void conflictingBatchTransitions_shouldMoveEachRowOnce() throws Exception {
+        String[] contexts = {Constants.TX_CONTEXT_APPROVE, Constants.TX_CONTEXT_REJECT, Constants.TX_CONTEXT_CANCEL};
+
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Long> ids = List.of(createSubmitted(), createSubmitted(), createSubmitted());
+            ConcurrentMap<Long, String> winners = new ConcurrentHashMap<>();
+            List<Outcome> outcomes = race(i -> () -> {
+                String context = contexts[i % contexts.length];
+                for (BatchItemResultVO<Long> result : transactionService.handleTransactions(ids, context, "approver" + i)) {
+                    if (result.getCode() == ExecutionCode.SUCCESS.getCode()) {
+                        assertNull(winners.putIfAbsent(result.getData(), context));
+                    } else {
+                        assertEquals(Constants.BATCH_OUTCOME_WRONG_STATE, result.getMessage());
+                    }
+                }
+                return context;
+            });
+            assertTrue(outcomes.stream().allMatch(o -> o.error() == null));
+
+            for (Long id : ids) {
+                String expectedStatus = switch (winners.get(id)) {
+                    case Constants.TX_CONTEXT_APPROVE -> Constants.TX_STATUS_APPROVED;
+                    case Constants.TX_CONTEXT_REJECT -> Constants.TX_STATUS_REJECTED;
+                    default -> Constants.TX_STATUS_CANCELLED;
+                };
+                TransactionVO current = transactionService.getTransactionById(id, "user01");
+                assertEquals(expectedStatus, current.getStatus(), "round " + round);
+                assertEquals(1L, current.getVersion(), "round " + round);
+            }
+        }
+    }
+
+    @Test
+    void concurrentUpdatesOfSameVersion_shouldHaveExactlyOneWinner() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Long id = createSubmitted();
+            Long version = transactionService.getTransactionById(id, "user01").getVersion();
+
+            List<Outcome> outcomes = race(i -> () -> {
+                TransactionVO vo = buildTransactionVO();
+                vo.setId(id);
+                vo.setVersion(version);
+                vo.setTransactionDescription("updated by " + i);
+                transactionService.updateTransactionBasicInfo(vo, Constants.TX_CONTEXT_UPDATE, "user" + i);
+                return vo.getTransactionDescription();
+            });
+
+            List<Outcome> winners = outcomes.stream().filter(o -> o.error() == null).toList();
+            assertEquals(1, winners.size(), "round " + round);
+            outcomes.stream().filter(o -> o.error() != null)
+                    .forEach(o -> assertEquals(ExecutionCode.CONFLICT.getCode(), o.error().getCode()));
+
+            TransactionVO current = transactionService.getTransactionById(id, "user01");
+            assertEquals(winners.get(0).value(), current.getTransactionDescription());
+            assertEquals(version + 1, current.getVersion());
+        }
+    }
+
+    private record Outcome(String value, BusinessException error) {
+    }
+
+    private List<Outcome> race(IntFunction<Callable<String>> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                Callable<String> callable = task.apply(i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return callable.call();
+                }));
+            }
+
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<String> future : futures) {
+                try {
+                    outcomes.add(new Outcome(future.get(30, TimeUnit.SECONDS), null));
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof BusinessException businessException)) {
+                        throw e;
+                    }
+                    outcomes.add(new Outcome(null, businessException));
+                }
+            }
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createSubmitted() {
+        return transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01").getId();
+    }
+
+    private TransactionVO buildTransactionVO() {
+        TransactionVO vo = new TransactionVO();
+        vo.setType(Constants.TX_TYPE_PAYMENT);
+        vo.setAmount(new BigDecimal("99.00"));
+        vo.setTransactionDate(LocalDateTime.now());
+        vo.setTransactionDescription("Concurrency test transaction");
+        vo.setDebitAccount("1001");
+        vo.setCreditAccount("2001");
+        vo.setCurrency(Constants.DEFAULT_CURRENCY);
+        return vo;
+    }
+}
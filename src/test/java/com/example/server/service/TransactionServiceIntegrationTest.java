@@ -0,0 +1,592 @@
+package com.example.server.service;
+
+import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
+import com.example.server.model.vo.BatchItemResultVO;
+import com.example.server.model.vo.CursorPageVO;
+import com.example.server.model.vo.TransactionAuditVO;
+import com.example.server.model.vo.TransactionSearchResultVO;
+import com.example.server.model.vo.TransactionSearchVO;
+import com.example.server.model.vo.TransactionSummaryVO;
+import com.example.server.model.vo.TransactionVO;
+import com.example.server.util.Constants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs TransactionService against the H2 database seeded from schema.sql and data.sql.
+ */
+@SpringBootTest
+class TransactionServiceIntegrationTest {
+
+    private static final String BOTH_TIERS = "SELECT status, currency, type, transaction_date, amount FROM transactions " +
+            "UNION ALL SELECT status, currency, type, transaction_date, amount FROM transactions_archive";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionArchiver archiver;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountBalanceIndex balanceIndex;
+
+    @Autowired
+    private TransactionSummaryCounters summaryCounters;
+
+    @Test
+    void searchTransactionByCursor_shouldWalkAllRowsInOffsetOrder() {
+        TransactionSearchVO offset = new TransactionSearchVO();
+        offset.setSortBy("transactionDate");
+        offset.setPageSize(Constants.MAX_PAGE_SIZE);
+        List<Long> expected = transactionService.searchTransaction(offset).getContent().stream()
+                .map(TransactionSearchResultVO::getId).toList();
+
+        TransactionSearchVO keyset = new TransactionSearchVO();
+        keyset.setPagination(Constants.PAGINATION_KEYSET);
+        keyset.setSortBy("transactionDate");
+        keyset.setPageSize(2);
+        List<Long> walked = new ArrayList<>();
+        CursorPageVO<TransactionSearchResultVO> page;
+        do {
+            page = transactionService.searchTransactionByCursor(keyset);
+            page.getContent().forEach(t -> walked.add(t.getId()));
+            keyset.setCursor(page.getNextCursor());
+        } while (page.isHasNext());
+
+        assertFalse(walked.isEmpty());
+        assertEquals(expected.size(), walked.size());
+        assertEquals(expected.stream().sorted().toList(), walked.stream().sorted().toList());
+    }
+
+    @Test
+    void searchTransactionByCursor_withNullSortBy_shouldWalkByIdDescending() {
+        // as bound from a request body with "sortBy": null
+        TransactionSearchVO keyset = new TransactionSearchVO();
+        keyset.setPagination(Constants.PAGINATION_KEYSET);
+        keyset.setSortBy(null);
+        keyset.setPageSize(2);
+        List<Long> walked = new ArrayList<>();
+        CursorPageVO<TransactionSearchResultVO> page;
+        do {
+            page = transactionService.searchTransactionByCursor(keyset);
+            page.getContent().forEach(t -> walked.add(t.getId()));
+            keyset.setCursor(page.getNextCursor());
+        } while (page.isHasNext());
+
+        TransactionSearchVO offset = new TransactionSearchVO();
+        offset.setSortBy(null);
+        offset.setPageSize(Constants.MAX_PAGE_SIZE);
+        assertEquals(transactionService.searchTransaction(offset).getContent().stream()
+                .map(TransactionSearchResultVO::getId).toList(), walked);
+    }
+
+    @Test
+    void transactionCache_shouldBePopulatedOnCreateAndEvictedOnDelete() {
+        Cache<Object, Object> cache = nativeTransactionCache();
+        long hitsBefore = cache.stats().hitCount();
+
+        TransactionVO created = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01");
+        assertTrue(cache.asMap().containsKey(created.getId()));
+
+        transactionService.getTransactionById(created.getId(), "user01");
+        assertEquals(hitsBefore + 1, cache.stats().hitCount());
+        assertNotNull(meterRegistry.find("cache.gets").tags("cache", "transaction", "result", "hit").functionCounter());
+
+        transactionService.deleteTransaction(created.getId(), "user01");
+        assertFalse(cache.asMap().containsKey(created.getId()));
+    }
+
+    @Test
+    void getTransactionVersion_shouldMatchTheDetailWithAndWithoutACachedEntry() {
+        TransactionVO created = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01");
+        assertEquals(created.getVersion(), transactionService.getTransactionVersion(created.getId()));
+
+        TransactionVO approve = new TransactionVO();
+        approve.setId(created.getId());
+        transactionService.handleTransaction(approve, Constants.TX_CONTEXT_APPROVE, "admin01");
+        assertFalse(nativeTransactionCache().asMap().containsKey(created.getId()));
+        Long version = transactionService.getTransactionVersion(created.getId());
+        assertEquals(created.getVersion() + 1, version);
+        assertEquals(version, transactionService.getTransactionById(created.getId(), "user01").getVersion());
+
+        transactionService.deleteTransaction(created.getId(), "user01");
+        assertNull(transactionService.getTransactionVersion(created.getId()));
+    }
+
+    @Test
+    void createTransactions_shouldAllocateDistinctSequenceIds() {
+        List<TransactionVO> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            batch.add(buildTransactionVO());
+        }
+        TransactionVO invalid = buildTransactionVO();
+        invalid.setCurrency(null);
+        batch.add(invalid);
+
+        List<BatchItemResultVO<TransactionVO>> results = transactionService.createTransactions(batch, Constants.TX_CONTEXT_CREATE, "user01");
+
+        List<Long> ids = results.stream().filter(r -> r.getData() != null).map(r -> r.getData().getId()).toList();
+        assertEquals(120, ids.size());
+        assertEquals(120, ids.stream().distinct().count());
+        assertTrue(ids.stream().allMatch(id -> id > 6), "ids must not collide with the rows seeded by data.sql");
+        assertEquals(ExecutionCode.INVALID_PARAMETER.getCode(), results.get(120).getCode());
+
+        ids.forEach(id -> transactionService.deleteTransaction(id, "user01"));
+    }
+
+    @Test
+    void searchTransaction_withFields_shouldReturnOnlyThoseProperties() {
+        TransactionSearchVO full = new TransactionSearchVO();
+        full.setSortBy("transactionDate");
+        List<TransactionSearchResultVO> expected = transactionService.searchTransaction(full).getContent();
+
+        TransactionSearchVO projected = new TransactionSearchVO();
+        projected.setSortBy("transactionDate");
+        projected.setFields(List.of("amount", "status"));
+        Page<TransactionSearchResultVO> page = transactionService.searchTransaction(projected);
+
+        assertEquals(expected.size(), page.getTotalElements());
+        assertEquals(expected.stream().map(TransactionSearchResultVO::getId).toList(),
+                page.getContent().stream().map(TransactionSearchResultVO::getId).toList());
+        for (int i = 0; i < expected.size(); i++) {
+            TransactionSearchResultVO row = page.getContent().get(i);
+            assertEquals(0, expected.get(i).getAmount().compareTo(row.getAmount()));
+            assertEquals(expected.get(i).getStatus(), row.getStatus());
+            assertNull(row.getTransactionDescription());
+            assertNull(row.getVersion());
+        }
+
+        projected.setPagination(Constants.PAGINATION_KEYSET);
+        projected.setPageSize(2);
+        List<Long> walked = new ArrayList<>();
+        CursorPageVO<TransactionSearchResultVO> cursorPage;
+        do {
+            cursorPage = transactionService.searchTransactionByCursor(projected);
+            cursorPage.getContent().forEach(t -> walked.add(t.getId()));
+            projected.setCursor(cursorPage.getNextCursor());
+        } while (cursorPage.isHasNext());
+        assertEquals(expected.stream().map(TransactionSearchResultVO::getId).sorted().toList(), walked.stream().sorted().toList());
+    }
+
+    @Test
+    void searchTransaction_byAccountAndAmount_shouldMatchEitherSide() throws Exception {
+        List<Long> expected = new ArrayList<>();
+        String[][] sides = {{"ACC-X", "ACC-Y"}, {"ACC-Y", "ACC-X"}, {"ACC-X", "ACC-X"}, {"ACC-Y", "ACC-Z"}};
+        for (String[] side : sides) {
+            for (String amount : List.of("9999.99", "10000.00", "25000.00")) {
+                TransactionVO vo = buildTransactionVO();
+                vo.setDebitAccount(side[0]);
+                vo.setCreditAccount(side[1]);
+                vo.setAmount(new BigDecimal(amount));
+                Long id = transactionService.createTransaction(vo, Constants.TX_CONTEXT_CREATE, "user01").getId();
+                if (!"ACC-Z".equals(side[1]) && !"9999.99".equals(amount)) {
+                    expected.add(id);
+                }
+            }
+        }
+        expected.sort(Comparator.reverseOrder());
+
+        TransactionSearchVO search = new TransactionSearchVO();
+        search.setAccount("ACC-X");
+        search.setMinAmount(new BigDecimal("10000"));
+        Page<TransactionSearchResultVO> page = transactionService.searchTransaction(search);
+        assertEquals(expected.size(), page.getTotalElements());
+        assertEquals(expected, page.getContent().stream().map(TransactionSearchResultVO::getId).toList());
+
+        search.setMaxAmount(new BigDecimal("10000.00"));
+        search.setCreditAccount("ACC-X");
+        assertEquals(2, transactionService.searchTransaction(search).getTotalElements());
+
+        TransactionSearchVO oneSide = new TransactionSearchVO();
+        oneSide.setDebitAccount("ACC-Y");
+        oneSide.setCurrency(Constants.DEFAULT_CURRENCY);
+        oneSide.setMaxAmount(new BigDecimal("10000"));
+        assertEquals(4, transactionService.searchTransaction(oneSide).getTotalElements());
+
+        TransactionSearchVO keyset = new TransactionSearchVO();
+        keyset.setAccount("ACC-X");
+        keyset.setMinAmount(new BigDecimal("10000"));
+        keyset.setPagination(Constants.PAGINATION_KEYSET);
+        keyset.setPageSize(2);
+        List<Long> walked = new ArrayList<>();
+        CursorPageVO<TransactionSearchResultVO> cursorPage;
+        do {
+            cursorPage = transactionService.searchTransactionByCursor(keyset);
+            cursorPage.getContent().forEach(t -> walked.add(t.getId()));
+            keyset.setCursor(cursorPage.getNextCursor());
+        } while (cursorPage.isHasNext());
+        assertEquals(expected, walked);
+
+        TransactionSearchVO export = new TransactionSearchVO();
+        export.setAccount("ACC-X");
+        export.setMinAmount(new BigDecimal("10000"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(expected.size(), transactionExportService.exportTransactions(export, Constants.EXPORT_FORMAT_NDJSON, out));
+    }
+
+    @Test
+    void handleTransactions_shouldTransitionOnlySubmittedRows() {
+        Long first = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01").getId();
+        Long second = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01").getId();
+        TransactionVO cancel = new TransactionVO();
+        cancel.setId(second);
+        transactionService.handleTransaction(cancel, Constants.TX_CONTEXT_CANCEL, "user01");
+
+        List<BatchItemResultVO<Long>> results = transactionService.handleTransactions(
+                List.of(first, second, -1L), Constants.TX_CONTEXT_APPROVE, "admin01");
+
+        assertEquals(List.of(Constants.BATCH_OUTCOME_TRANSITIONED, Constants.BATCH_OUTCOME_WRONG_STATE, Constants.BATCH_OUTCOME_NOT_FOUND),
+                results.stream().map(BatchItemResultVO::getMessage).toList());
+        assertEquals(Constants.TX_STATUS_APPROVED, transactionService.getTransactionById(first, "user01").getStatus());
+        assertEquals(Constants.TX_STATUS_CANCELLED, transactionService.getTransactionById(second, "user01").getStatus());
+    }
+
+    @Test
+    void statusTransitions_shouldBeQueryableInTheAuditTrail() throws Exception {
+        TransactionVO created = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01");
+        TransactionVO vo = buildTransactionVO();
+        vo.setId(created.getId());
+        transactionService.handleTransaction(vo, Constants.TX_CONTEXT_REJECT, "admin01");
+        transactionService.updateTransactionBasicInfo(vo, Constants.TX_CONTEXT_UPDATE, "user01");
+        transactionService.handleTransactions(List.of(created.getId()), Constants.TX_CONTEXT_APPROVE, "admin01");
+        transactionService.deleteTransaction(created.getId(), "user01");
+
+        List<TransactionAuditVO> audit = List.of();
+        for (int i = 0; i < 100 && audit.size() < 4; i++) {
+            Thread.sleep(20);
+            audit = transactionService.getTransactionAudit(created.getId(), "user01");
+        }
+        assertEquals(List.of(
+                        Constants.TX_CONTEXT_REJECT + ":" + Constants.TX_STATUS_SUBMITTED + ">" + Constants.TX_STATUS_REJECTED + ":admin01",
+                        Constants.TX_CONTEXT_UPDATE + ":" + Constants.TX_STATUS_REJECTED + ">" + Constants.TX_STATUS_SUBMITTED + ":user01",
+                        Constants.TX_CONTEXT_APPROVE + ":" + Constants.TX_STATUS_SUBMITTED + ">" + Constants.TX_STATUS_APPROVED + ":admin01",
+                        Constants.TX_CONTEXT_DELETE + ":" + Constants.TX_STATUS_APPROVED + ">null:user01"),
+                audit.stream().map(e -> e.getAction() + ":" + e.getFromStatus() + ">" + e.getToStatus() + ":" + e.getUserId()).toList());
+    }
+
+    @Test
+    void transactionSummary_shouldMatchGroupByAfterEveryKindOfWrite() {
+        TransactionVO first = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01");
+        TransactionVO second = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01");
+        TransactionVO third = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01");
+        assertSummaryMatchesGroupBy();
+
+        TransactionVO update = buildTransactionVO();
+        update.setId(first.getId());
+        update.setCurrency("USD");
+        update.setAmount(new BigDecimal("99.99"));
+        update.setTransactionDate(LocalDateTime.of(2023, 12, 31, 23, 59));
+        transactionService.updateTransactionBasicInfo(update, Constants.TX_CONTEXT_UPDATE, "user01");
+        transactionService.handleTransaction(update, Constants.TX_CONTEXT_APPROVE, "admin01");
+        transactionService.handleTransactions(List.of(second.getId(), third.getId()), Constants.TX_CONTEXT_REJECT, "admin01");
+        transactionService.deleteTransaction(third.getId(), "user01");
+        assertSummaryMatchesGroupBy();
+
+        List<TransactionSummaryVO> approvedUsd = transactionService.getTransactionSummary(Constants.TX_STATUS_APPROVED, "USD",
+                null, LocalDate.of(2023, 12, 31), LocalDate.of(2023, 12, 31));
+        assertEquals(1, approvedUsd.size());
+        assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + BOTH_TIERS + ") WHERE status = 'APPROVED' " +
+                "AND currency = 'USD' AND CAST(transaction_date AS DATE) = DATE '2023-12-31'", Long.class), approvedUsd.get(0).getCount());
+
+        transactionService.deleteTransaction(first.getId(), "user01");
+        transactionService.deleteTransaction(second.getId(), "user01");
+        assertSummaryMatchesGroupBy();
+    }
+
+    private void assertSummaryMatchesGroupBy() {
+        List<String> expected = jdbcTemplate.query("SELECT status, currency, type, COUNT(*), COALESCE(SUM(amount), 0) " +
+                        "FROM (" + BOTH_TIERS + ") GROUP BY status, currency, type ORDER BY status, currency, type",
+                (resultSet, row) -> resultSet.getString(1) + "/" + resultSet.getString(2) + "/" + resultSet.getString(3)
+                        + "=" + resultSet.getLong(4) + "/" + resultSet.getBigDecimal(5).stripTrailingZeros().toPlainString());
+        List<String> actual = transactionService.getTransactionSummary(null, null, null, null, null).stream()
+                .map(s -> s.getStatus() + "/" + s.getCurrency() + "/" + s.getType() + "=" + s.getCount() + "/"
+                        + s.getAmount().stripTrailingZeros().toPlainString())
+                .toList();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void accountBalance_shouldMatchApprovedRowsAfterApprovalsAndDeletes() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            TransactionVO vo = buildTransactionVO();
+            vo.setDebitAccount("BAL-DEBIT");
+            vo.setCreditAccount("BAL-CREDIT");
+            vo.setAmount(new BigDecimal("10.25").multiply(BigDecimal.valueOf(i + 1)));
+            ids.add(transactionService.createTransaction(vo, Constants.TX_CONTEXT_CREATE, "user01").getId());
+        }
+        assertEquals(List.of(), transactionService.getAccountBalance("BAL-CREDIT", null));
+
+        TransactionVO approve = new TransactionVO();
+        approve.setId(ids.get(0));
+        transactionService.handleTransaction(approve, Constants.TX_CONTEXT_APPROVE, "admin01");
+        transactionService.handleTransactions(ids.subList(1, 3), Constants.TX_CONTEXT_APPROVE, "admin01");
+        assertBalanceMatchesApprovedRows("BAL-CREDIT");
+        assertBalanceMatchesApprovedRows("BAL-DEBIT");
+        assertEquals(new BigDecimal("61.50"), transactionService.getAccountBalance("BAL-CREDIT", null).get(0).getNet());
+        assertEquals(new BigDecimal("-61.50"), transactionService.getAccountBalance("BAL-DEBIT", null).get(0).getNet());
+
+        transactionService.deleteTransaction(ids.get(1), "user01");
+        assertBalanceMatchesApprovedRows("BAL-CREDIT");
+        assertBalanceMatchesApprovedRows("BAL-DEBIT");
+        assertEquals(2, transactionService.getAccountBalance("BAL-DEBIT", Constants.DEFAULT_CURRENCY).get(0).getCount());
+        assertEquals(List.of(), transactionService.getAccountBalance("BAL-DEBIT", "JPY"));
+    }
+
+    @Test
+    void accountBalance_shouldKeepRowsWithoutCurrency() {
+        String insert = "INSERT INTO transactions (id, type, amount, transaction_date, transaction_description, " +
+                "debit_account, credit_account, status, last_updated, currency, submitted_by, submitted_at, version) " +
+                "VALUES (?, 'PAYMENT', ?, ?, 'No currency', 'BAL-NULL-DEBIT', 'BAL-NULL-CREDIT', ?, ?, NULL, 'user01', ?, 0)";
+        jdbcTemplate.update(insert, -200L, new BigDecimal("5.00"), LocalDateTime.now(), Constants.TX_STATUS_APPROVED,
+                LocalDateTime.now(), LocalDateTime.now());
+        jdbcTemplate.update(insert, -201L, new BigDecimal("7.50"), LocalDateTime.now(), Constants.TX_STATUS_SUBMITTED,
+                LocalDateTime.now(), LocalDateTime.now());
+        try {
+            balanceIndex.rebuild();
+            assertBalanceMatchesApprovedRows("BAL-NULL-CREDIT");
+            assertNull(transactionService.getAccountBalance("BAL-NULL-CREDIT", null).get(0).getCurrency());
+            assertEquals(List.of(), transactionService.getAccountBalance("BAL-NULL-CREDIT", Constants.DEFAULT_CURRENCY));
+
+            TransactionVO approve = new TransactionVO();
+            approve.setId(-201L);
+            transactionService.handleTransaction(approve, Constants.TX_CONTEXT_APPROVE, "admin01");
+            assertBalanceMatchesApprovedRows("BAL-NULL-CREDIT");
+            assertBalanceMatchesApprovedRows("BAL-NULL-DEBIT");
+            assertEquals(new BigDecimal("12.50"), transactionService.getAccountBalance("BAL-NULL-CREDIT", null).get(0).getNet());
+        } finally {
+            // the raw rows were never counted by the summary, so both in-memory views are reloaded without them
+            jdbcTemplate.update("DELETE FROM transactions WHERE id IN (-200, -201)");
+            balanceIndex.rebuild();
+            summaryCounters.rebuild();
+        }
+    }
+
+    private void assertBalanceMatchesApprovedRows(String account) {
+        String approved = "SELECT debit_account, credit_account, currency, amount FROM transactions WHERE status = 'APPROVED' " +
+                "UNION ALL SELECT debit_account, credit_account, currency, amount FROM transactions_archive WHERE status = 'APPROVED'";
+        List<String> expected = jdbcTemplate.query("SELECT currency, " +
+                        "SUM(CASE WHEN credit_account = ? THEN amount ELSE 0 END), " +
+                        "SUM(CASE WHEN debit_account = ? THEN amount ELSE 0 END), COUNT(*) " +
+                        "FROM (" + approved + ") WHERE credit_account = ? OR debit_account = ? GROUP BY currency ORDER BY currency",
+                (resultSet, row) -> resultSet.getString(1) + "=" + resultSet.getBigDecimal(2).stripTrailingZeros().toPlainString()
+                        + "/" + resultSet.getBigDecimal(3).stripTrailingZeros().toPlainString() + "/" + resultSet.getLong(4),
+                account, account, account, account);
+        List<String> actual = transactionService.getAccountBalance(account, null).stream()
+                .map(b -> b.getCurrency() + "=" + b.getCredited().stripTrailingZeros().toPlainString() + "/"
+                        + b.getDebited().stripTrailingZeros().toPlainString() + "/" + b.getCount())
+                .toList();
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void searchTransaction_shouldBeCachedUntilAWriteTouchesItsStatus() {
+        TransactionSearchVO search = new TransactionSearchVO();
+        search.setStatus(Constants.TX_STATUS_SUBMITTED);
+        search.setSubmittedBy("cache-user");
+        TransactionVO created = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "cache-user");
+        assertEquals(1, transactionService.searchTransaction(search).getTotalElements());
+
+        // a row written behind the service's back stays invisible while the cached result is valid
+        jdbcTemplate.update("INSERT INTO transactions (id, type, amount, transaction_date, transaction_description, " +
+                "debit_account, credit_account, status, last_updated, currency, submitted_by, submitted_at, version) " +
+                "VALUES (-100, 'PAYMENT', 1.00, ?, 'Raw insert', '1001', '2001', 'SUBMITTED', ?, 'CNY', 'cache-user', ?, 0)",
+                LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now());
+        try {
+            assertEquals(1, transactionService.searchTransaction(search).getTotalElements());
+
+            Long other = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "user01").getId();
+            TransactionVO approve = new TransactionVO();
+            approve.setId(other);
+            transactionService.handleTransaction(approve, Constants.TX_CONTEXT_APPROVE, "admin01");
+            assertEquals(2, transactionService.searchTransaction(search).getTotalElements());
+
+            TransactionSearchVO approved = new TransactionSearchVO();
+            approved.setStatus(Constants.TX_STATUS_APPROVED);
+            approved.setId(other);
+            assertEquals(1, transactionService.searchTransaction(approved).getTotalElements());
+            transactionService.deleteTransaction(other, "user01");
+            assertEquals(0, transactionService.searchTransaction(approved).getTotalElements());
+        } finally {
+            jdbcTemplate.update("DELETE FROM transactions WHERE id = -100");
+            transactionService.deleteTransaction(created.getId(), "cache-user");
+        }
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "transactionSearch").tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+
+    @Test
+    void exportTransactions_shouldStreamEverySearchMatch() throws Exception {
+        TransactionVO quoted = buildTransactionVO();
+        quoted.setTransactionDescription("Export, \"quoted\" row");
+        Long quotedId = transactionService.createTransaction(quoted, Constants.TX_CONTEXT_CREATE, "user01").getId();
+
+        TransactionSearchVO searchVO = new TransactionSearchVO();
+        searchVO.setType(Constants.TX_TYPE_PAYMENT);
+        long expected = transactionService.searchTransaction(searchVO).getTotalElements();
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(expected, transactionExportService.exportTransactions(searchVO, Constants.EXPORT_FORMAT_NDJSON, ndjson));
+        List<String> lines = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(expected, lines.size());
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            assertEquals(Constants.TX_TYPE_PAYMENT, row.get("type").asText());
+        }
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(expected, transactionExportService.exportTransactions(searchVO, Constants.EXPORT_FORMAT_CSV, csv));
+        List<String> rows = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(expected + 1, rows.size());
+        assertTrue(rows.get(0).startsWith("id,type,amount,"));
+        assertTrue(rows.stream().anyMatch(r -> r.startsWith(quotedId + ",") && r.contains("\"Export, \"\"quoted\"\" row\"")));
+
+        transactionService.deleteTransaction(quotedId, "user01");
+    }
+
+    @Test
+    void searchTransaction_byDescription_shouldFollowCreatesAndUpdates() {
+        TransactionVO vo = buildTransactionVO();
+        vo.setTransactionDescription("Trigram lookup alpha");
+        TransactionVO created = transactionService.createTransaction(vo, Constants.TX_CONTEXT_CREATE, "user01");
+
+        TransactionSearchVO search = new TransactionSearchVO();
+        search.setTransactionDescription("lookup alpha");
+        assertEquals(List.of(created.getId()), searchIds(search));
+
+        vo.setId(created.getId());
+        vo.setVersion(created.getVersion());
+        vo.setTransactionDescription("Trigram lookup beta");
+        transactionService.updateTransactionBasicInfo(vo, Constants.TX_CONTEXT_UPDATE, "user01");
+
+        assertTrue(searchIds(search).isEmpty());
+        search.setTransactionDescription("lookup beta");
+        assertEquals(List.of(created.getId()), searchIds(search));
+
+        transactionService.deleteTransaction(created.getId(), "user01");
+        assertTrue(searchIds(search).isEmpty());
+    }
+
+    @Test
+    void archivedTransactions_shouldStayVisibleThroughEveryRead() throws Exception {
+        TransactionVO vo = buildTransactionVO();
+        vo.setTransactionDescription("Archived tier lookup");
+        TransactionVO approved = transactionService.createTransaction(vo, Constants.TX_CONTEXT_CREATE, "archive-user");
+        transactionService.handleTransaction(approved, Constants.TX_CONTEXT_APPROVE, "admin01");
+        TransactionVO submitted = transactionService.createTransaction(buildTransactionVO(), Constants.TX_CONTEXT_CREATE, "archive-user");
+
+        assertTrue(archiver.archiveOlderThan(LocalDateTime.now().plusSeconds(1)) >= 1);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE id = ?", Long.class, approved.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions_archive WHERE id = ?", Long.class, approved.getId()));
+        assertSummaryMatchesGroupBy();
+
+        nativeTransactionCache().invalidate(approved.getId());
+        assertEquals(Constants.TX_STATUS_APPROVED, transactionService.getTransactionById(approved.getId(), "user01").getStatus());
+
+        TransactionSearchVO search = new TransactionSearchVO();
+        search.setSubmittedBy("archive-user");
+        assertEquals(List.of(submitted.getId(), approved.getId()), searchIds(search));
+        search.setPageSize(1);
+        search.setPage(1);
+        assertEquals(List.of(approved.getId()), searchIds(search));
+        assertEquals(2, transactionService.searchTransaction(search).getTotalElements());
+
+        TransactionSearchVO keyset = new TransactionSearchVO();
+        keyset.setSubmittedBy("archive-user");
+        keyset.setSortBy("transactionDate");
+        keyset.setPageSize(1);
+        CursorPageVO<TransactionSearchResultVO> first = transactionService.searchTransactionByCursor(keyset);
+        keyset.setCursor(first.getNextCursor());
+        CursorPageVO<TransactionSearchResultVO> second = transactionService.searchTransactionByCursor(keyset);
+        assertEquals(List.of(submitted.getId(), approved.getId()),
+                List.of(first.getContent().get(0).getId(), second.getContent().get(0).getId()));
+        assertFalse(second.isHasNext());
+
+        TransactionSearchVO description = new TransactionSearchVO();
+        description.setTransactionDescription("tier lookup");
+        assertEquals(List.of(approved.getId()), searchIds(description));
+
+        // the tiers are merged by any sortable column, not only the keyset ones
+        TransactionSearchVO byStatus = new TransactionSearchVO();
+        byStatus.setSubmittedBy("archive-user");
+        byStatus.setSortBy("status");
+        assertEquals(List.of(submitted.getId(), approved.getId()), searchIds(byStatus));
+
+        // only final statuses are archived, so this search never reads the archive
+        TransactionSearchVO submittedOnly = new TransactionSearchVO();
+        submittedOnly.setSubmittedBy("archive-user");
+        submittedOnly.setStatus(Constants.TX_STATUS_SUBMITTED);
+        assertFalse(archiver.mayContain(new TransactionSearchPlanner().plan(submittedOnly)));
+        assertEquals(List.of(submitted.getId()), searchIds(submittedOnly));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(2, transactionExportService.exportTransactions(search, Constants.EXPORT_FORMAT_NDJSON, ndjson));
+
+        BusinessException again = assertThrows(BusinessException.class,
+                () -> transactionService.handleTransaction(approved, Constants.TX_CONTEXT_CANCEL, "admin01"));
+        assertEquals(ExecutionCode.BUSINESS_ERROR.getCode(), again.getCode());
+        assertEquals(Constants.BATCH_OUTCOME_WRONG_STATE, transactionService.handleTransactions(List.of(approved.getId()),
+                Constants.TX_CONTEXT_CANCEL, "admin01").get(0).getMessage());
+
+        assertTrue(transactionService.deleteTransaction(approved.getId(), "user01"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions_archive WHERE id = ?", Long.class, approved.getId()));
+        assertSummaryMatchesGroupBy();
+        transactionService.deleteTransaction(submitted.getId(), "user01");
+    }
+
+    private List<Long> searchIds(TransactionSearchVO search) {
+        return transactionService.searchTransaction(search).getContent().stream().map(TransactionSearchResultVO::getId).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeTransactionCache() {
+        return (Cache<Object, Object>) cacheManager.getCache("transaction").getNativeCache();
+    }
+
+    private TransactionVO buildTransactionVO() {
+        TransactionVO vo = new TransactionVO();
+        vo.setType(Constants.TX_TYPE_PAYMENT);
+        vo.setAmount(new BigDecimal("250.00"));
+        vo.setTransactionDate(LocalDateTime.now());
+        vo.setTransactionDescription("Integration test transaction");
+        vo.setDebitAccount("1001");
+        vo.setCreditAccount("2001");
+        vo.setCurrency(Constants.DEFAULT_CURRENCY);
+        return vo;
+    }
+}
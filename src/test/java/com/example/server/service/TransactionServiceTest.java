@@ -1,14 +1,24 @@
 package com.example.server.service;
 
 import com.example.server.exception.BusinessException;
+import com.example.server.model.ExecutionCode;
 import com.example.server.model.data.Transaction;
+import com.example.server.model.vo.BatchItemResultVO;
+import com.example.server.model.vo.CursorPageVO;
+import com.example.server.model.vo.TransactionSearchResultVO;
 import com.example.server.model.vo.TransactionSearchVO;
 import com.example.server.model.vo.TransactionVO;
+import com.example.server.repository.ArchivedTransactionRepository;
 import com.example.server.repository.TransactionRepository;
 import com.example.server.util.Constants;
+import com.example.server.util.CursorCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -24,6 +34,39 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    // archive reported empty, so every read stays on the live table
+    @Mock
+    private ArchivedTransactionRepository archivedTransactionRepository;
+
+    @Mock
+    private TransactionArchiver archiver;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TransactionDescriptionIndex descriptionIndex;
+
+    @Mock
+    private TransactionAuditLog auditLog;
+
+    // group commit disabled, so creates save through the repository
+    @Mock
+    private TransactionGroupCommit groupCommit;
+
+    // caching disabled, so every search reaches the mocked repository
+    @Spy
+    private TransactionSearchCache searchCache = new TransactionSearchCache(new SimpleMeterRegistry(), 0);
+
+    @Mock
+    private ConnectionPermits connectionPermits;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -50,19 +93,19 @@ class TransactionServiceTest {
 
     @Test
     void deleteTransaction_success() {
-        Transaction transaction = new Transaction();
-        transaction.setId(2L);
-        when(transactionRepository.findById(2L)).thenReturn(Optional.of(transaction));
-        doNothing().when(transactionRepository).deleteById(2L);
+        when(transactionRepository.deleteTransactionById(2L)).thenReturn(List.of(statusView(2L, Constants.TX_STATUS_SUBMITTED)));
 
         assertTrue(transactionService.deleteTransaction(2L, "user1"));
-        verify(transactionRepository).deleteById(2L);
+        verify(transactionRepository).deleteTransactionById(2L);
+        verify(transactionRepository, never()).findById(any());
+        verify(auditLog).record(Constants.TX_CONTEXT_DELETE, 2L, Constants.TX_STATUS_SUBMITTED, null, "user1");
     }
 
     @Test
     void deleteTransaction_notFound() {
-        when(transactionRepository.findById(2L)).thenReturn(Optional.empty());
+        when(transactionRepository.deleteTransactionById(2L)).thenReturn(List.of());
         assertThrows(BusinessException.class, () -> transactionService.deleteTransaction(2L, "user1"));
+        verifyNoInteractions(auditLog);
     }
 
     @Test
@@ -73,10 +116,27 @@ class TransactionServiceTest {
         vo.setPageSize(10);
 
         Page<Transaction> page = new PageImpl<>(List.of());
-        when(transactionRepository.findAll(any(Pageable.class))).thenReturn(page);
+        when(transactionRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+
+        Page<TransactionSearchResultVO> result = transactionService.searchTransaction(vo);
+        assertTrue(result.getContent().isEmpty());
+    }
 
-        Page<Transaction> result = transactionService.searchTransaction(vo);
-        assertNull(result);
+    @Test
+    void searchTransaction_shouldHoldAConnectionPermitOnlyWhileLoading() {
+        when(transactionRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of()));
+
+        transactionService.searchTransaction(new TransactionSearchVO());
+        InOrder inOrder = inOrder(connectionPermits, transactionRepository);
+        inOrder.verify(connectionPermits).acquire();
+        inOrder.verify(transactionRepository).findAll(any(Specification.class), any(Pageable.class));
+        inOrder.verify(connectionPermits).release();
+
+        // a cached result is returned without taking a permit
+        clearInvocations(connectionPermits);
+        doReturn(Page.empty()).when(searchCache).get(any(), any());
+        transactionService.searchTransaction(new TransactionSearchVO());
+        verifyNoInteractions(connectionPermits);
     }
 
     @Test
@@ -90,7 +150,7 @@ class TransactionServiceTest {
 
         when(transactionRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
-        Page<Transaction> result = transactionService.searchTransaction(vo);
+        Page<TransactionSearchResultVO> result = transactionService.searchTransaction(vo);
         assertEquals(2, result.getContent().size());
         assertEquals(5, result.getTotalElements());
         assertEquals(3, result.getTotalPages());
@@ -108,7 +168,7 @@ class TransactionServiceTest {
         Page<Transaction> page = new PageImpl<>(Collections.singletonList(new Transaction()));
         when(transactionRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
-        Page<Transaction> result = transactionService.searchTransaction(vo);
+        Page<TransactionSearchResultVO> result = transactionService.searchTransaction(vo);
         assertEquals(1, result.getContent().size());
     }
 
@@ -123,7 +183,7 @@ class TransactionServiceTest {
         Page<Transaction> page = new PageImpl<>(Collections.emptyList());
         when(transactionRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
-        Page<Transaction> result = transactionService.searchTransaction(vo);
+        Page<TransactionSearchResultVO> result = transactionService.searchTransaction(vo);
         assertTrue(result.getContent().isEmpty());
     }
 
@@ -137,8 +197,24 @@ class TransactionServiceTest {
         Page<Transaction> page = new PageImpl<>(Collections.singletonList(new Transaction()));
         when(transactionRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
-        Page<Transaction> result = transactionService.searchTransaction(vo);
+        Page<TransactionSearchResultVO> result = transactionService.searchTransaction(vo);
         assertEquals(1, result.getContent().size());
+        verify(descriptionIndex).candidates("test");
+    }
+
+    @Test
+    void searchTransaction_descriptionWithoutCandidates_shouldSkipQuery() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setTransactionDescription("no such text");
+        vo.setPage(0);
+        vo.setPageSize(10);
+
+        when(descriptionIndex.candidates("no such text")).thenReturn(new long[0]);
+
+        Page<TransactionSearchResultVO> result = transactionService.searchTransaction(vo);
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(0, result.getTotalElements());
+        verify(transactionRepository, never()).findAll(any(Specification.class), any(Pageable.class));
     }
 
     @Test
@@ -151,20 +227,92 @@ class TransactionServiceTest {
         Page<Transaction> page = new PageImpl<>(Collections.singletonList(new Transaction()));
         when(transactionRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
 
-        Page<Transaction> result = transactionService.searchTransaction(vo);
+        Page<TransactionSearchResultVO> result = transactionService.searchTransaction(vo);
+        assertEquals(1, result.getContent().size());
+    }
+
+    @Test
+    void searchTransaction_withFields_shouldSelectOnlyThoseColumns() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setFields(List.of("status", "amount"));
+
+        when(transactionRepository.findProjected(any(), any(), any(), anyLong(), anyInt())).thenReturn(List.of());
+
+        transactionService.searchTransaction(vo);
+        verify(transactionRepository).findProjected(any(), eq(new LinkedHashSet<>(List.of("id", "status", "amount"))),
+                any(), eq(0L), eq(50));
+        verify(transactionRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchTransaction_withUnknownField_shouldThrow() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setFields(List.of("id", "password"));
+        BusinessException e = assertThrows(BusinessException.class, () -> transactionService.searchTransaction(vo));
+        assertEquals(ExecutionCode.INVALID_PARAMETER.getCode(), e.getCode());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void searchTransactionByCursor_firstPage_shouldReturnNextCursorWithoutCount() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setPagination(Constants.PAGINATION_KEYSET);
+        vo.setPageSize(2);
+
+        List<Transaction> rows = List.of(buildValidTransaction(30L, "SUBMITTED"),
+                buildValidTransaction(29L, "SUBMITTED"), buildValidTransaction(28L, "SUBMITTED"));
+        when(transactionRepository.findBy(any(Specification.class), any())).thenReturn(rows);
+
+        CursorPageVO<TransactionSearchResultVO> result = transactionService.searchTransactionByCursor(vo);
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertNotNull(result.getNextCursor());
+        verify(transactionRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void searchTransactionByCursor_lastPage_shouldHaveNoNextCursor() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setPagination(Constants.PAGINATION_KEYSET);
+        vo.setPageSize(2);
+
+        when(transactionRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(buildValidTransaction(1L, "SUBMITTED")));
+
+        CursorPageVO<TransactionSearchResultVO> result = transactionService.searchTransactionByCursor(vo);
         assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void searchTransactionByCursor_invalidCursor_shouldThrow() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setPagination(Constants.PAGINATION_KEYSET);
+        vo.setCursor("not-a-cursor");
+        assertThrows(BusinessException.class, () -> transactionService.searchTransactionByCursor(vo));
+    }
+
+    @Test
+    void searchTransactionByCursor_cursorForOtherSortColumn_shouldThrow() {
+        TransactionSearchVO vo = new TransactionSearchVO();
+        vo.setPagination(Constants.PAGINATION_KEYSET);
+        vo.setSortBy("amount");
+        vo.setCursor(CursorCodec.encode("id", 10L, 10L));
+        assertThrows(BusinessException.class, () -> transactionService.searchTransactionByCursor(vo));
     }
 
     @Test
     void handleTransaction_approve_success() {
         TransactionVO vo = buildValidTransactionVO(3L);
-        Transaction transaction = buildValidTransaction(3L, Constants.TX_STATUS_SUBMITTED);
 
-        when(transactionRepository.findById(3L)).thenReturn(Optional.of(transaction));
-        when(transactionRepository.updateTransactionStatusById(eq(3L), eq(Constants.TX_STATUS_APPROVED), any())).thenReturn(1);
+        when(transactionRepository.updateTransactionStatusById(eq(3L), eq(Constants.TX_STATUS_SUBMITTED), isNull(),
+                eq(Constants.TX_STATUS_APPROVED), any())).thenReturn(List.of(statusView(3L, Constants.TX_STATUS_SUBMITTED)));
 
         int result = transactionService.handleTransaction(vo, Constants.TX_CONTEXT_APPROVE, "user1");
         assertEquals(1, result);
+        verify(auditLog).record(Constants.TX_CONTEXT_APPROVE, 3L, Constants.TX_STATUS_SUBMITTED, Constants.TX_STATUS_APPROVED, "user1");
+        verify(transactionRepository, never()).findStatusById(any());
     }
 
     @Test
@@ -176,16 +324,65 @@ class TransactionServiceTest {
     @Test
     void handleTransaction_notFound() {
         TransactionVO vo = buildValidTransactionVO(5L);
-        when(transactionRepository.findById(5L)).thenReturn(Optional.empty());
-        assertThrows(BusinessException.class, () -> transactionService.handleTransaction(vo, Constants.TX_CONTEXT_APPROVE, "user1"));
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> transactionService.handleTransaction(vo, Constants.TX_CONTEXT_APPROVE, "user1"));
+        assertEquals(ExecutionCode.NOT_FOUND.getCode(), e.getCode());
     }
 
     @Test
     void handleTransaction_statusNotSubmitted() {
         TransactionVO vo = buildValidTransactionVO(6L);
-        Transaction transaction = buildValidTransaction(6L, "APPROVED");
-        when(transactionRepository.findById(6L)).thenReturn(Optional.of(transaction));
-        assertThrows(BusinessException.class, () -> transactionService.handleTransaction(vo, Constants.TX_CONTEXT_APPROVE, "user1"));
+        when(transactionRepository.findStatusById(6L)).thenReturn(Optional.of(statusView(6L, "APPROVED")));
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> transactionService.handleTransaction(vo, Constants.TX_CONTEXT_APPROVE, "user1"));
+        assertEquals(ExecutionCode.BUSINESS_ERROR.getCode(), e.getCode());
+    }
+
+    @Test
+    void handleTransaction_writtenOverConcurrentTransition_shouldBeRejected() {
+        TransactionVO vo = buildValidTransactionVO(7L);
+        when(transactionRepository.updateTransactionStatusById(eq(7L), eq(Constants.TX_STATUS_SUBMITTED), isNull(),
+                eq(Constants.TX_STATUS_APPROVED), any())).thenReturn(List.of(statusView(7L, Constants.TX_STATUS_CANCELLED)));
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> transactionService.handleTransaction(vo, Constants.TX_CONTEXT_APPROVE, "user1"));
+        assertEquals(ExecutionCode.BUSINESS_ERROR.getCode(), e.getCode());
+        verifyNoInteractions(auditLog);
+    }
+
+    @Test
+    void handleTransaction_staleVersion_shouldReportConflict() {
+        TransactionVO vo = buildValidTransactionVO(6L);
+        vo.setVersion(1L);
+        when(transactionRepository.findStatusById(6L)).thenReturn(Optional.of(statusView(6L, Constants.TX_STATUS_SUBMITTED)));
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> transactionService.handleTransaction(vo, Constants.TX_CONTEXT_APPROVE, "user1"));
+        assertEquals(ExecutionCode.CONFLICT.getCode(), e.getCode());
+    }
+
+    @Test
+    void handleTransactions_shouldReportPerIdOutcomes() {
+        when(transactionRepository.updateTransactionStatusByIds(eq(List.of(11L, 12L, 13L, 14L)), eq(Constants.TX_STATUS_SUBMITTED),
+                eq(Constants.TX_STATUS_APPROVED), any()))
+                .thenReturn(List.of(statusView(11L, Constants.TX_STATUS_SUBMITTED), statusView(14L, Constants.TX_STATUS_CANCELLED)));
+        when(transactionRepository.findStatusesByIds(List.of(12L, 13L)))
+                .thenReturn(List.of(statusView(12L, Constants.TX_STATUS_APPROVED)));
+
+        List<BatchItemResultVO<Long>> results = transactionService.handleTransactions(
+                List.of(11L, 12L, 13L, 14L), Constants.TX_CONTEXT_APPROVE, "user1");
+
+        assertEquals(List.of(Constants.BATCH_OUTCOME_TRANSITIONED, Constants.BATCH_OUTCOME_WRONG_STATE,
+                        Constants.BATCH_OUTCOME_NOT_FOUND, Constants.BATCH_OUTCOME_WRONG_STATE),
+                results.stream().map(BatchItemResultVO::getMessage).toList());
+        assertEquals(ExecutionCode.SUCCESS.getCode(), results.get(0).getCode());
+        assertEquals(ExecutionCode.NOT_FOUND.getCode(), results.get(2).getCode());
+        // 14 was written over a concurrent cancel, so the cancel is put back
+        verify(transactionRepository).restoreTransactionStatusById(eq(14L), eq(Constants.TX_STATUS_CANCELLED), eq(0L), any());
+        verify(transactionRepository, never()).findById(any());
+    }
+
+    @Test
+    void handleTransactions_invalidContext_shouldThrow() {
+        assertThrows(BusinessException.class, () -> transactionService.handleTransactions(List.of(1L), "INVALID", "user1"));
     }
 
     @Test
@@ -198,6 +395,11 @@ class TransactionServiceTest {
 
         TransactionVO result = transactionService.createTransaction(vo, Constants.TX_CONTEXT_CREATE, "user1");
         assertEquals(7L, result.getId());
+
+        ArgumentCaptor<TransactionChangedEvent> event = ArgumentCaptor.forClass(TransactionChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Constants.TX_CONTEXT_CREATE, event.getValue().context());
+        assertEquals(7L, event.getValue().transactions().get(0).getId());
     }
 
     @Test
@@ -207,26 +409,78 @@ class TransactionServiceTest {
         assertThrows(BusinessException.class, () -> transactionService.createTransaction(vo, Constants.TX_CONTEXT_CREATE, "user1"));
     }
 
+    @Test
+    void createTransactions_shouldReportPerItemErrorsAndSaveValidItems() {
+        TransactionVO valid = buildValidTransactionVO(null);
+        TransactionVO missingAmount = buildValidTransactionVO(null);
+        missingAmount.setAmount(null);
+        Transaction saved = new Transaction();
+        saved.setId(51L);
+
+        when(transactionRepository.saveAll(anyList())).thenReturn(List.of(saved));
+
+        List<BatchItemResultVO<TransactionVO>> results = transactionService.createTransactions(
+                List.of(missingAmount, valid), Constants.TX_CONTEXT_CREATE, "user1");
+
+        assertEquals(2, results.size());
+        assertEquals(ExecutionCode.INVALID_PARAMETER.getCode(), results.get(0).getCode());
+        assertEquals("Invalid parameter - amount", results.get(0).getMessage());
+        assertNull(results.get(0).getData());
+        assertEquals(ExecutionCode.SUCCESS.getCode(), results.get(1).getCode());
+        assertEquals(51L, results.get(1).getData().getId());
+        verify(transactionRepository).saveAll(argThat(list -> ((List<?>) list).size() == 1));
+    }
+
+    @Test
+    void createTransactions_differentlyInvalidItems_shouldEachReportTheirOwnMessage() {
+        TransactionVO missingAmount = buildValidTransactionVO(null);
+        missingAmount.setAmount(null);
+        TransactionVO withId = buildValidTransactionVO(5L);
+        TransactionVO missingCurrency = buildValidTransactionVO(null);
+        missingCurrency.setCurrency(null);
+
+        List<BatchItemResultVO<TransactionVO>> results = transactionService.createTransactions(
+                List.of(missingAmount, withId, missingCurrency), Constants.TX_CONTEXT_CREATE, "user1");
+
+        assertEquals("Invalid parameter - amount", results.get(0).getMessage());
+        assertEquals("Invalid parameter", results.get(1).getMessage());
+        assertEquals("Invalid parameter - currency", results.get(2).getMessage());
+        assertEquals("Invalid parameter", ExecutionCode.INVALID_PARAMETER.getMessage());
+    }
+
+    @Test
+    void createTransactions_emptyBatch_shouldThrow() {
+        assertThrows(BusinessException.class,
+                () -> transactionService.createTransactions(List.of(), Constants.TX_CONTEXT_CREATE, "user1"));
+    }
+
     @Test
     void updateTransactionBasicInfo_success() {
         TransactionVO vo = buildValidTransactionVO(9L);
-        Transaction transaction = buildValidTransaction(9L, Constants.TX_STATUS_SUBMITTED);
 
-        when(transactionRepository.findById(9L)).thenReturn(Optional.of(transaction));
-        when(transactionRepository.updateTransactionBasicInfoById(eq(9L), any(), any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(1);
+        when(transactionRepository.updateTransactionBasicInfoById(eq(9L), any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(List.of(statusView(9L, Constants.TX_STATUS_REJECTED)));
 
         int result = transactionService.updateTransactionBasicInfo(vo, Constants.TX_CONTEXT_UPDATE, "user1");
         assertEquals(1, result);
+        verify(auditLog).record(Constants.TX_CONTEXT_UPDATE, 9L, Constants.TX_STATUS_REJECTED, Constants.TX_STATUS_SUBMITTED, "user1");
     }
 
     @Test
     void updateTransactionBasicInfo_notFound() {
         TransactionVO vo = buildValidTransactionVO(10L);
-        when(transactionRepository.findById(10L)).thenReturn(Optional.empty());
         assertThrows(BusinessException.class, () -> transactionService.updateTransactionBasicInfo(vo, Constants.TX_CONTEXT_UPDATE, "user1"));
     }
 
+    @Test
+    void updateTransactionBasicInfo_approved_shouldBeRejected() {
+        TransactionVO vo = buildValidTransactionVO(10L);
+        when(transactionRepository.findStatusById(10L)).thenReturn(Optional.of(statusView(10L, Constants.TX_STATUS_APPROVED)));
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> transactionService.updateTransactionBasicInfo(vo, Constants.TX_CONTEXT_UPDATE, "user1"));
+        assertEquals(ExecutionCode.BUSINESS_ERROR.getCode(), e.getCode());
+    }
+
     private TransactionVO buildValidTransactionVO(Long id) {
         TransactionVO vo = new TransactionVO();
         vo.setId(id);
@@ -240,6 +494,65 @@ class TransactionServiceTest {
         return vo;
     }
 
+    private TransactionRepository.PriorRowView statusView(Long id, String status) {
+        return new TransactionRepository.PriorRowView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getVersion() {
+                return 0L;
+            }
+
+            @Override
+            public LocalDateTime getLastUpdated() {
+                return LocalDateTime.of(2024, 5, 2, 10, 0);
+            }
+
+            @Override
+            public String getCurrency() {
+                return "USD";
+            }
+
+            @Override
+            public String getType() {
+                return "PAYMENT";
+            }
+
+            @Override
+            public LocalDateTime getTransactionDate() {
+                return LocalDateTime.of(2024, 5, 1, 10, 0);
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return BigDecimal.TEN;
+            }
+
+            @Override
+            public String getDebitAccount() {
+                return "1001";
+            }
+
+            @Override
+            public String getCreditAccount() {
+                return "2001";
+            }
+
+            @Override
+            public String getSubmittedBy() {
+                return "user1";
+            }
+        };
+    }
+
     private Transaction buildValidTransaction(Long id, String status) {
         Transaction t = new Transaction();
         t.setId(id);
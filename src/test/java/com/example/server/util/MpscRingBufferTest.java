@@ -0,0 +1,89 @@
+package com.example.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void offer_shouldReturnFalseWhenFullAndAcceptAgainAfterDrain() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, buffer.drainTo(drained, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        for (int i = 4; i < 7; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(7));
+
+        drained.clear();
+        assertEquals(4, buffer.drainTo(drained, 10));
+        assertEquals(List.of(3, 4, 5, 6), drained);
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void constructor_shouldRejectCapacityThatIsNotPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscRingBuffer<>(1000));
+    }
+
+    @Test
+    void concurrentProducers_shouldDeliverEveryElementExactlyOnceInPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(256);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (long i = 0; i < perProducer; i++) {
+                        long[] element = {producer, i};
+                        while (!buffer.offer(element)) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            long[] next = new long[producers];
+            List<long[]> drained = new ArrayList<>();
+            int received = 0;
+            while (received < producers * perProducer) {
+                drained.clear();
+                received += buffer.drainTo(drained, 64);
+                for (long[] element : drained) {
+                    assertEquals(next[(int) element[0]]++, element[1]);
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            for (long count : next) {
+                assertEquals(perProducer, count);
+            }
+            assertTrue(buffer.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.server.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleConsumerWorkerTest {
+
+    @Test
+    void offer_shouldHandOverBatchesInOrderOnTheWorkerThread() throws Exception {
+        List<Integer> handled = new ArrayList<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(10);
+        SingleConsumerWorker<Integer> worker = new SingleConsumerWorker<>("test-worker", 16, 4, batch -> {
+            assertTrue(batch.size() <= 4);
+            threads.add(Thread.currentThread().getName());
+            handled.addAll(batch);
+            batch.forEach(element -> done.countDown());
+        });
+        worker.start();
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(worker.offer(i));
+                // lets the worker go idle, so later offers have to wake it
+                Thread.sleep(i % 3 == 0 ? 5 : 0);
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            worker.stop();
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), handled);
+        assertEquals(Set.of("test-worker"), threads);
+        assertFalse(worker.offer(10));
+    }
+
+    @Test
+    void stop_shouldHandOverEveryElementAcceptedWhileStopping() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicInteger handled = new AtomicInteger();
+            SingleConsumerWorker<Integer> worker = new SingleConsumerWorker<>("test-worker", 64, 8,
+                    batch -> handled.addAndGet(batch.size()));
+            worker.start();
+            CountDownLatch started = new CountDownLatch(4);
+            ExecutorService producers = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int p = 0; p < 4; p++) {
+                    futures.add(producers.submit(() -> {
+                        started.countDown();
+                        for (int i = 0; worker.isRunning() || i < 100; i++) {
+                            if (worker.offer(i)) {
+                                accepted.incrementAndGet();
+                            }
+                        }
+                    }));
+                }
+                started.await();
+                worker.stop();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                producers.shutdownNow();
+            }
+            assertEquals(accepted.get(), handled.get(), "round " + round);
+        }
+    }
+}
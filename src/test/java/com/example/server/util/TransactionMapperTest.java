@@ -0,0 +1,81 @@
+package com.example.server.util;
+
+import com.example.server.model.data.Transaction;
+import com.example.server.model.vo.TransactionSearchResultVO;
+import com.example.server.model.vo.TransactionVO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionMapperTest {
+
+    @Test
+    void toVO_shouldCopyEveryProperty() {
+        Transaction transaction = buildTransaction();
+        assertSameProperties(transaction, TransactionMapper.toVO(transaction));
+    }
+
+    @Test
+    void toEntity_shouldCopyEveryProperty() {
+        TransactionVO vo = TransactionMapper.toVO(buildTransaction());
+        assertSameProperties(vo, TransactionMapper.toEntity(vo));
+    }
+
+    @Test
+    void toSearchResult_shouldCopyEveryProperty() {
+        Transaction transaction = buildTransaction();
+        assertSameProperties(transaction, TransactionMapper.toSearchResult(transaction));
+    }
+
+    @Test
+    void toVO_shouldKeepNullProperties() {
+        TransactionVO vo = TransactionMapper.toVO(new Transaction());
+        assertNull(vo.getId());
+        assertNull(vo.getApprovedAt());
+        assertNull(vo.getVersion());
+    }
+
+    // compares through reflection so a property missing from the mapper fails here
+    private static void assertSameProperties(Object source, Object target) {
+        BeanWrapper from = new BeanWrapperImpl(source);
+        BeanWrapper to = new BeanWrapperImpl(target);
+        int compared = 0;
+        for (PropertyDescriptor property : to.getPropertyDescriptors()) {
+            String name = property.getName();
+            if ("class".equals(name) || !from.isReadableProperty(name)) {
+                continue;
+            }
+            assertNotNull(from.getPropertyValue(name), name + " is not populated in the fixture");
+            assertEquals(from.getPropertyValue(name), to.getPropertyValue(name), name);
+            compared++;
+        }
+        assertEquals(15, compared);
+    }
+
+    private static Transaction buildTransaction() {
+        LocalDateTime now = LocalDateTime.now();
+        Transaction transaction = new Transaction();
+        transaction.setId(42L);
+        transaction.setType(Constants.TX_TYPE_PAYMENT);
+        transaction.setAmount(new BigDecimal("120.50"));
+        transaction.setTransactionDate(now.minusDays(1));
+        transaction.setTransactionDescription("Invoice 42");
+        transaction.setDebitAccount("100001");
+        transaction.setCreditAccount("200001");
+        transaction.setCurrency(Constants.DEFAULT_CURRENCY);
+        transaction.setStatus(Constants.TX_STATUS_APPROVED);
+        transaction.setLastUpdated(now);
+        transaction.setSubmittedBy("user01");
+        transaction.setSubmittedAt(now.minusHours(2));
+        transaction.setApprovedBy("user02");
+        transaction.setApprovedAt(now.minusHours(1));
+        transaction.setVersion(3L);
+        return transaction;
+    }
+}